@@ -1,22 +1,34 @@
 package com.example.whiskerwatch.demo.controller;
 
-import java.util.List;
 import java.util.Map;
 import static java.util.Map.entry;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.whiskerwatch.demo.controller.response.CursorPage;
 import com.example.whiskerwatch.demo.controller.response.UserResponse;
+import com.example.whiskerwatch.demo.exception.ApiException;
+import com.example.whiskerwatch.demo.exception.ErrorCode;
+import com.example.whiskerwatch.demo.model.BookingState;
+import com.example.whiskerwatch.demo.security.LoginThrottler;
+import com.example.whiskerwatch.demo.security.PasswordHashingService;
+import com.example.whiskerwatch.demo.security.PrincipalCache;
+import com.example.whiskerwatch.demo.security.TokenRevocationService;
+import com.example.whiskerwatch.demo.security.VerifiedTokenCache;
 import com.example.whiskerwatch.demo.service.BookingService;
 import com.example.whiskerwatch.demo.service.PetService;
+import com.example.whiskerwatch.demo.service.ReferenceDataRegistry;
+import com.example.whiskerwatch.demo.service.SecondLevelCache;
+import com.example.whiskerwatch.demo.service.SitterScheduleIndex;
 import com.example.whiskerwatch.demo.service.UserService;
 
 @RestController
@@ -28,135 +40,154 @@ public class AdminController {
     private final UserService userService;
     private final PetService petService;
     private final BookingService bookingService;
-
-    public AdminController(UserService userService, PetService petService, BookingService bookingService) {
+    private final PrincipalCache principalCache;
+    private final VerifiedTokenCache tokenCache;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottler loginThrottler;
+    private final TokenRevocationService tokenRevocationService;
+    private final SitterScheduleIndex scheduleIndex;
+    private final ReferenceDataRegistry referenceData;
+    private final SecondLevelCache secondLevelCache;
+
+    public AdminController(UserService userService, PetService petService, BookingService bookingService,
+                           PrincipalCache principalCache, VerifiedTokenCache tokenCache,
+                           PasswordHashingService passwordHashingService, LoginThrottler loginThrottler,
+                           TokenRevocationService tokenRevocationService, SitterScheduleIndex scheduleIndex,
+                           ReferenceDataRegistry referenceData, SecondLevelCache secondLevelCache) {
         this.userService = userService;
         this.petService = petService;
         this.bookingService = bookingService;
+        this.principalCache = principalCache;
+        this.tokenCache = tokenCache;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottler = loginThrottler;
+        this.tokenRevocationService = tokenRevocationService;
+        this.scheduleIndex = scheduleIndex;
+        this.referenceData = referenceData;
+        this.secondLevelCache = secondLevelCache;
     }
 
     // ==================== USER MANAGEMENT ====================
 
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
-        try {
-            List<UserResponse> users = userService.getUsers(null, null, null)
-                    .stream()
-                    .map(UserResponse::toResponse)
-                    .toList();
-
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "data", users
-            ));
-        } catch (Exception e) {
-            System.err.println("Error fetching users: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "success", false,
-                "message", "Failed to fetch users"
-            ));
+    public ResponseEntity<?> getAllUsers(@RequestParam(name = "cursor", required = false) String cursor,
+                                         @RequestParam(name = "limit", required = false) Integer limit) {
+        CursorPage<UserResponse> page = userService.getUserResponses(null, null, null, cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
         }
+        return response.body(Map.of(
+            "success", true,
+            "data", page.items()
+        ));
     }
 
     @DeleteMapping("/bookings/{bookingId}")
     public ResponseEntity<?> deleteBooking(@PathVariable Long bookingId) {
         try {
             bookingService.deleteBooking(bookingId);
-            return ResponseEntity.ok(Map.of("success", true, "message", "Booking deleted successfully"));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                "success", false,
-                "message", "Booking not found"
-            ));
-        } catch (Exception e) {
-            System.err.println("Error deleting booking: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "success", false,
-                "message", "Failed to delete booking"
-            ));
+            throw new ApiException(ErrorCode.NOT_FOUND, "Booking not found");
         }
+        return ResponseEntity.ok(Map.of("success", true, "message", "Booking deleted successfully"));
+    }
+
+    // Cross-checks cached sitter schedules against the database and evicts any that drifted
+    @PostMapping("/schedule-index/verify")
+    public ResponseEntity<?> verifyScheduleIndex(@RequestParam(name = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(Map.of("success", true, "data", scheduleIndex.verify(limit)));
+    }
+
+    // Statuses, pet types, roles and customer types are cached for the life of the process;
+    // call this after changing those tables by hand
+    @PostMapping("/reference-data/reload")
+    public ResponseEntity<?> reloadReferenceData() {
+        return ResponseEntity.ok(Map.of("success", true, "data", referenceData.reload()));
     }
 
     // ==================== STATISTICS ====================
 
     @GetMapping("/stats/overview")
     public ResponseEntity<?> getOverviewStats() {
-        try {
-            var allUsers = userService.getUsers(null, null, null);
-            var allPets = petService.getPets(null, null, null);
-            var allBookings = bookingService.getBookings(null, null, null, null, null);
-
-            Map<String, Object> stats = Map.ofEntries(
-                entry("totalUsers", allUsers.size()),
-                entry("activeUsers", allUsers.stream().filter(u -> u.getIsActive()).count()),
-                entry("totalPets", allPets.size()),
-                entry("activePets", allPets.stream().filter(p -> p.getIsActive()).count()),
-                entry("totalBookings", allBookings.size()),
-                entry("pendingBookings", allBookings.stream().filter(b -> "PENDING".equals(b.getStatus().getStatusName())).count()),
-                entry("completedBookings", allBookings.stream().filter(b -> "COMPLETED".equals(b.getStatus().getStatusName())).count()),
-                entry("inProgressBookings", allBookings.stream().filter(b -> "IN_PROGRESS".equals(b.getStatus().getStatusName())).count()),
-                entry("cancelledBookings", allBookings.stream().filter(b -> "CANCELLED".equals(b.getStatus().getStatusName())).count()),
-                entry("owners", allUsers.stream().filter(u -> u.getCustomerType() != null && "OWNER".equals(u.getCustomerType().getTypeName())).count()),
-                entry("sitters", allUsers.stream().filter(u -> u.getCustomerType() != null && "SITTER".equals(u.getCustomerType().getTypeName())).count())
-            );
-
-            return ResponseEntity.ok(Map.of("success", true, "data", stats));
-        } catch (Exception e) {
-            System.err.println("Error fetching overview stats: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "success", false,
-                "message", "Failed to fetch statistics"
-            ));
-        }
+        Map<String, Long> users = userService.countUsers();
+        Map<String, Long> pets = petService.countPets();
+        Map<BookingState, Long> bookings = bookingService.countByState();
+
+        Map<String, Object> stats = Map.ofEntries(
+            entry("totalUsers", users.get("total")),
+            entry("activeUsers", users.get("active")),
+            entry("totalPets", pets.get("total")),
+            entry("activePets", pets.get("active")),
+            entry("totalBookings", bookings.values().stream().mapToLong(Long::longValue).sum()),
+            entry("pendingBookings", bookings.get(BookingState.PENDING)),
+            entry("completedBookings", bookings.get(BookingState.COMPLETED)),
+            entry("inProgressBookings", bookings.get(BookingState.IN_PROGRESS)),
+            entry("cancelledBookings", bookings.get(BookingState.CANCELLED)),
+            entry("owners", users.get("owners")),
+            entry("sitters", users.get("sitters"))
+        );
+
+        return ResponseEntity.ok(Map.of("success", true, "data", stats));
     }
 
+    // One grouped count on role, customer type and is_active instead of loading every user
     @GetMapping("/stats/users")
     public ResponseEntity<?> getUserStats() {
-        try {
-            var allUsers = userService.getUsers(null, null, null);
-
-            Map<String, Object> userStats = Map.of(
-                    "total", allUsers.size(),
-                    "active", allUsers.stream().filter(u -> u.getIsActive()).count(),
-                    "inactive", allUsers.stream().filter(u -> !u.getIsActive()).count(),
-                    "admins", allUsers.stream().filter(u -> "ADMIN".equals(u.getRole().getRoleName())).count(),
-                    "customers", allUsers.stream().filter(u -> "CUSTOMER".equals(u.getRole().getRoleName())).count(),
-                    "owners", allUsers.stream().filter(u -> u.getCustomerType() != null && "OWNER".equals(u.getCustomerType().getTypeName())).count(),
-                    "sitters", allUsers.stream().filter(u -> u.getCustomerType() != null && "SITTER".equals(u.getCustomerType().getTypeName())).count()
-            );
-
-            return ResponseEntity.ok(Map.of("success", true, "data", userStats));
-        } catch (Exception e) {
-            System.err.println("Error fetching user stats: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "success", false,
-                "message", "Failed to fetch user statistics"
-            ));
-        }
+        return ResponseEntity.ok(Map.of("success", true, "data", userService.countUsers()));
     }
 
+    // One grouped count on status_id instead of loading every booking
     @GetMapping("/stats/bookings")
     public ResponseEntity<?> getBookingStats() {
-        try {
-            var allBookings = bookingService.getBookings(null, null, null, null, null);
-
-            Map<String, Object> bookingStats = Map.of(
-                    "total", allBookings.size(),
-                    "pending", allBookings.stream().filter(b -> "PENDING".equals(b.getStatus().getStatusName())).count(),
-                    "confirmed", allBookings.stream().filter(b -> "CONFIRMED".equals(b.getStatus().getStatusName())).count(),
-                    "inProgress", allBookings.stream().filter(b -> "IN_PROGRESS".equals(b.getStatus().getStatusName())).count(),
-                    "completed", allBookings.stream().filter(b -> "COMPLETED".equals(b.getStatus().getStatusName())).count(),
-                    "cancelled", allBookings.stream().filter(b -> "CANCELLED".equals(b.getStatus().getStatusName())).count(),
-                    "rejected", allBookings.stream().filter(b -> "REJECTED".equals(b.getStatus().getStatusName())).count()
-            );
-
-            return ResponseEntity.ok(Map.of("success", true, "data", bookingStats));
-        } catch (Exception e) {
-            System.err.println("Error fetching booking stats: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
-                "success", false,
-                "message", "Failed to fetch booking statistics"
-            ));
-        }
+        Map<BookingState, Long> bookings = bookingService.countByState();
+
+        Map<String, Object> bookingStats = Map.of(
+                "total", bookings.values().stream().mapToLong(Long::longValue).sum(),
+                "pending", bookings.get(BookingState.PENDING),
+                "confirmed", bookings.get(BookingState.CONFIRMED),
+                "inProgress", bookings.get(BookingState.IN_PROGRESS),
+                "completed", bookings.get(BookingState.COMPLETED),
+                "cancelled", bookings.get(BookingState.CANCELLED),
+                "rejected", bookings.get(BookingState.REJECTED)
+        );
+
+        return ResponseEntity.ok(Map.of("success", true, "data", bookingStats));
+    }
+
+    @GetMapping("/stats/auth-cache")
+    public ResponseEntity<?> getAuthCacheStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", principalCache.stats()));
+    }
+
+    @GetMapping("/stats/token-cache")
+    public ResponseEntity<?> getTokenCacheStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", tokenCache.stats()));
+    }
+
+    @GetMapping("/stats/password-hashing")
+    public ResponseEntity<?> getPasswordHashingStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", passwordHashingService.stats()));
+    }
+
+    @GetMapping("/stats/login-throttle")
+    public ResponseEntity<?> getLoginThrottleStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", loginThrottler.stats()));
+    }
+
+    @GetMapping("/stats/token-revocation")
+    public ResponseEntity<?> getTokenRevocationStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", tokenRevocationService.stats()));
+    }
+
+    @GetMapping("/stats/schedule-index")
+    public ResponseEntity<?> getScheduleIndexStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", scheduleIndex.stats()));
+    }
+
+    @GetMapping("/stats/entity-cache")
+    public ResponseEntity<?> getEntityCacheStats() {
+        return ResponseEntity.ok(Map.of("success", true, "data", secondLevelCache.stats()));
     }
 }
@@ -1,23 +1,30 @@
 package com.example.whiskerwatch.demo.controller;
 
 import com.example.whiskerwatch.demo.controller.request.LoginRequest;
+import com.example.whiskerwatch.demo.controller.request.RefreshTokenRequest;
 import com.example.whiskerwatch.demo.controller.response.JwtResponse;
+import com.example.whiskerwatch.demo.controller.response.TokenValidationResponse;
 import com.example.whiskerwatch.demo.controller.response.UserResponse;
+import com.example.whiskerwatch.demo.exception.ApiException;
+import com.example.whiskerwatch.demo.exception.ErrorCode;
+import com.example.whiskerwatch.demo.exception.RequestThrottledException;
 import com.example.whiskerwatch.demo.model.User;
-import com.example.whiskerwatch.demo.security.CustomUserDetailsService;
+import com.example.whiskerwatch.demo.security.JwtClaims;
 import com.example.whiskerwatch.demo.security.JwtUtil;
+import com.example.whiskerwatch.demo.security.LoginThrottler;
+import com.example.whiskerwatch.demo.security.TokenRevocationService;
+import com.example.whiskerwatch.demo.security.UserPrincipal;
+import com.example.whiskerwatch.demo.service.RefreshTokenService;
 import com.example.whiskerwatch.demo.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -29,142 +36,136 @@ public class AuthController {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final LoginThrottler loginThrottler;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     public AuthController(UserService userService, 
                          AuthenticationManager authenticationManager,
                          JwtUtil jwtUtil,
-                         CustomUserDetailsService userDetailsService) {
+                         LoginThrottler loginThrottler,
+                         RefreshTokenService refreshTokenService,
+                         TokenRevocationService tokenRevocationService) {
         this.userService = userService;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.loginThrottler = loginThrottler;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
-        try {
-            System.out.println("Login attempt - Email: " + loginRequest.getEmail()); // Debug log
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest,
+                                   @RequestParam(name = "includeProfile", defaultValue = "false") boolean includeProfile,
+                                   HttpServletRequest request) {
+        // Reject before any password work is done
+        long retryAfter = loginThrottler.tryAcquire(loginRequest.getEmail(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            throw new RequestThrottledException(retryAfter);
+        }
 
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
+        // Authenticate user
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getEmail(), 
                     loginRequest.getPassword()
                 )
             );
+        } catch (BadCredentialsException e) {
+            loginThrottler.recordFailure();
+            throw new ApiException(ErrorCode.INVALID_CREDENTIALS);
+        }
 
-            // Get user details
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            CustomUserDetailsService.CustomUserPrincipal userPrincipal = 
-                (CustomUserDetailsService.CustomUserPrincipal) userDetails;
-
-            // Generate JWT token
-            Map<String, Object> extraClaims = new HashMap<>();
-            extraClaims.put("userId", userPrincipal.getUserId());
-            extraClaims.put("role", userPrincipal.getRole());
-            extraClaims.put("customerType", userPrincipal.getCustomerType());
-
-            String jwt = jwtUtil.generateToken(userDetails, extraClaims);
-
-            // Create response
-            JwtResponse jwtResponse = new JwtResponse(
-                jwt,
-                "Bearer",
-                userPrincipal.getUserId(),
-                userPrincipal.getUsername(),
-                userPrincipal.getRole(),
-                userPrincipal.getCustomerType(),
-                UserResponse.toResponse(userPrincipal.getUser())
-            );
+        // Get user details
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
-            return ResponseEntity.ok(jwtResponse);
+        // The full profile (with its collection counts) is only loaded when asked for
+        UserResponse profile = includeProfile
+                ? userService.getUserResponse(userPrincipal.getUserId()).orElse(null)
+                : null;
 
-        } catch (BadCredentialsException e) {
-            System.out.println("Invalid credentials for email: " + loginRequest.getEmail()); // Debug log
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("success", false, "message", "Invalid email or password"));
-        } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage()); // Debug log
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Login failed. Please try again."));
-        }
+        return ResponseEntity.ok(authResponse(userPrincipal,
+                refreshTokenService.issue(userPrincipal.getUserId()), profile));
     }
 
+    // Exchanges an opaque refresh token for a new access token and a new refresh token.
+    // The presented refresh token is consumed, so each one can only be used once.
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshToken(@RequestHeader("Authorization") String authHeader) {
-        try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("success", false, "message", "Invalid authorization header"));
-            }
-
-            String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
-            
-            if (username != null && jwtUtil.validateToken(token)) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                CustomUserDetailsService.CustomUserPrincipal userPrincipal = 
-                    (CustomUserDetailsService.CustomUserPrincipal) userDetails;
-
-                // Generate new token
-                Map<String, Object> extraClaims = new HashMap<>();
-                extraClaims.put("userId", userPrincipal.getUserId());
-                extraClaims.put("role", userPrincipal.getRole());
-                extraClaims.put("customerType", userPrincipal.getCustomerType());
-
-                String newToken = jwtUtil.generateToken(userDetails, extraClaims);
-
-                JwtResponse jwtResponse = new JwtResponse(
-                    newToken,
-                    "Bearer",
-                    userPrincipal.getUserId(),
-                    userPrincipal.getUsername(),
-                    userPrincipal.getRole(),
-                    userPrincipal.getCustomerType(),
-                    UserResponse.toResponse(userPrincipal.getUser())
-                );
-
-                return ResponseEntity.ok(jwtResponse);
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("success", false, "message", "Invalid or expired token"));
-            }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Token refresh failed"));
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken())
+                .orElseThrow(() -> new ApiException(ErrorCode.INVALID_REFRESH_TOKEN));
+
+        return ResponseEntity.ok(authResponse(rotation.principal(), rotation.refreshToken(), null));
+    }
+
+    // Revokes the presented access token until it expires and, when supplied, the refresh
+    // token. Always succeeds so a client can log out with an already invalid token.
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) RefreshTokenRequest refreshRequest,
+                                    HttpServletRequest request) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            resolveClaims(request, authHeader.substring(7)).ifPresent(tokenRevocationService::revoke);
         }
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+        return ResponseEntity.ok(Map.of("success", true, "message", "Logged out successfully"));
     }
 
+    // Answers from the verified claims alone (userId, role and customerType are embedded
+    // at login). The database is only touched when the expanded profile is requested,
+    // or for older tokens that do not carry the userId claim.
     @PostMapping("/validate")
-    public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String authHeader) {
-        try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("valid", false, "message", "Invalid authorization header"));
-            }
-
-            String token = authHeader.substring(7);
-            boolean isValid = jwtUtil.validateToken(token);
-
-            if (isValid) {
-                String username = jwtUtil.extractUsername(token);
-                Optional<User> userOpt = userService.getUserByEmail(username);
-                
-                if (userOpt.isPresent()) {
-                    return ResponseEntity.ok(Map.of(
-                        "valid", true,
-                        "user", UserResponse.toResponse(userOpt.get())
-                    ));
-                }
-            }
-
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("valid", false, "message", "Invalid or expired token"));
-
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("valid", false, "message", "Token validation failed"));
+    public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String authHeader,
+                                           @RequestParam(name = "includeProfile", defaultValue = "false") boolean includeProfile,
+                                           HttpServletRequest request) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new ApiException(ErrorCode.INVALID_AUTH_HEADER);
+        }
+
+        JwtClaims verified = resolveClaims(request, authHeader.substring(7))
+                .orElseThrow(() -> new ApiException(ErrorCode.INVALID_TOKEN));
+
+        if (!includeProfile && verified.getUserId() != null) {
+            return ResponseEntity.ok(TokenValidationResponse.fromClaims(verified, null));
+        }
+
+        User user = userService.getUserByEmail(verified.getSubject())
+                .orElseThrow(() -> new ApiException(ErrorCode.INVALID_TOKEN));
+        UserResponse profile = includeProfile ? userService.getUserResponse(user.getId()).orElse(null) : null;
+        if (verified.getUserId() == null) {
+            verified = verified.withIdentity(user.getId(),
+                    user.getRole() != null ? user.getRole().getRoleName() : null,
+                    user.getCustomerType() != null ? user.getCustomerType().getTypeName() : null);
+        }
+        return ResponseEntity.ok(TokenValidationResponse.fromClaims(verified, profile));
+    }
+
+    private JwtResponse authResponse(UserPrincipal principal, String refreshToken, UserResponse profile) {
+        JwtResponse jwtResponse = new JwtResponse(
+            jwtUtil.generateToken(principal),
+            "Bearer",
+            principal.getUserId(),
+            principal.getUsername(),
+            principal.getRole(),
+            principal.getCustomerType()
+        );
+        jwtResponse.setExpiresIn(jwtUtil.getExpirationSeconds());
+        jwtResponse.setRefreshToken(refreshToken);
+        jwtResponse.setUser(profile);
+        return jwtResponse;
+    }
+
+    // Reuse the claims JwtAuthenticationFilter already verified for this request;
+    // only parse the token here when the filter did not (e.g. it failed verification)
+    private Optional<JwtClaims> resolveClaims(HttpServletRequest request, String token) {
+        Object verified = request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE);
+        if (verified instanceof JwtClaims claims) {
+            return Optional.of(claims);
         }
+        return jwtUtil.verify(token);
     }
-}
\ No newline at end of file
+}
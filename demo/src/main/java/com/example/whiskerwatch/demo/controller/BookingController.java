@@ -1,12 +1,17 @@
 package com.example.whiskerwatch.demo.controller;
 
+import com.example.whiskerwatch.demo.controller.request.BookingActionRequest;
 import com.example.whiskerwatch.demo.controller.request.BookingRequest;
 import com.example.whiskerwatch.demo.controller.request.CreateGroup;
+import com.example.whiskerwatch.demo.controller.request.SlotRequest;
 import com.example.whiskerwatch.demo.controller.request.UpdateGroup;
 import com.example.whiskerwatch.demo.controller.response.BookingResponse;
-import com.example.whiskerwatch.demo.model.Booking;
+import com.example.whiskerwatch.demo.controller.response.SlotAvailability;
+import com.example.whiskerwatch.demo.controller.response.UserResponse;
 import com.example.whiskerwatch.demo.service.BookingService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +19,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -30,6 +36,8 @@ public class BookingController {
         this.bookingService = bookingService;
     }
 
+    // Filters combine (AND). Keyset-paginated; pass the X-Next-Cursor header value back as
+    // "cursor" (with the same filters and sort) for the next page
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getBookings(
             @RequestParam(name = "ownerId", required = false) Long ownerId,
@@ -37,211 +45,145 @@ public class BookingController {
             @RequestParam(name = "petId", required = false) Long petId,
             @RequestParam(name = "status", required = false) String status,
             @RequestParam(name = "bookingDate", required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bookingDate) {
-
-        List<BookingResponse> bookings = bookingService.getBookings(ownerId, sitterId, petId, status, bookingDate)
-                .stream()
-                .map(BookingResponse::toResponse)
-                .toList();
-
-        return ResponseEntity.ok(bookings);
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bookingDate,
+            @RequestParam(name = "fromDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(name = "toDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(name = "sort", defaultValue = "asc") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+
+        return bookingService.getBookingResponses(ownerId, sitterId, petId, status, bookingDate, fromDate, toDate,
+                        "desc".equalsIgnoreCase(sort), cursor, limit)
+                .toResponseEntity();
     }
 
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingResponse> getBooking(@PathVariable Long bookingId) {
-        Optional<BookingResponse> booking = bookingService.getBooking(bookingId)
-                .map(BookingResponse::toResponse);
+        Optional<BookingResponse> booking = bookingService.getBookingResponse(bookingId);
 
         return booking.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsByOwner(@PathVariable Long ownerId) {
-        List<BookingResponse> bookings = bookingService.getBookingsByOwner(ownerId)
-                .stream()
-                .map(BookingResponse::toResponse)
-                .toList();
-
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponse>> getBookingsByOwner(
+            @PathVariable Long ownerId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return bookingService.getBookingResponses(ownerId, null, null, null, null, null, null, false, cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/sitter/{sitterId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsBySitter(@PathVariable Long sitterId) {
-        List<BookingResponse> bookings = bookingService.getBookingsBySitter(sitterId)
-                .stream()
-                .map(BookingResponse::toResponse)
-                .toList();
-
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponse>> getBookingsBySitter(
+            @PathVariable Long sitterId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return bookingService.getBookingResponses(null, sitterId, null, null, null, null, null, false, cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/pet/{petId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsByPet(@PathVariable Long petId) {
-        List<BookingResponse> bookings = bookingService.getBookingsByPet(petId)
-                .stream()
-                .map(BookingResponse::toResponse)
-                .toList();
-
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponse>> getBookingsByPet(
+            @PathVariable Long petId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return bookingService.getBookingResponses(null, null, petId, null, null, null, null, false, cursor, limit).toResponseEntity();
     }
 
     @PostMapping
     public ResponseEntity<?> createBooking(@RequestBody @Validated(CreateGroup.class) BookingRequest bookingRequest) {
-        try {
-            Booking savedBooking = bookingService.createBooking(
-                    bookingRequest.getBookingDate(),
-                    bookingRequest.getStartTime(),
-                    bookingRequest.getEndTime(),
-                    bookingRequest.getStatusId(),
-                    bookingRequest.getTotalCost(),
-                    bookingRequest.getSpecialRequests(),
-                    bookingRequest.getPetId(),
-                    bookingRequest.getOwnerId(),
-                    bookingRequest.getSitterId()
-            );
-            
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Booking created successfully",
-                        "booking", BookingResponse.toResponse(savedBooking)
-                    ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to create booking: " + e.getMessage()
-                    ));
-        }
+        BookingResponse savedBooking = bookingService.createBooking(
+                bookingRequest.getBookingDate(),
+                bookingRequest.getStartTime(),
+                bookingRequest.getEndTime(),
+                bookingRequest.getStatusId(),
+                bookingRequest.getTotalCost(),
+                bookingRequest.getSpecialRequests(),
+                bookingRequest.getPetId(),
+                bookingRequest.getOwnerId(),
+                bookingRequest.getSitterId()
+        );
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of(
+                    "success", true,
+                    "message", "Booking created successfully",
+                    "booking", savedBooking
+                ));
     }
 
     @PutMapping("/{bookingId}")
     public ResponseEntity<?> updateBooking(@PathVariable Long bookingId,
                                         @RequestBody @Validated(UpdateGroup.class) BookingRequest bookingRequest) {
-        try {
-            // Log the incoming request for debugging
-            System.out.println("Updating booking " + bookingId + " with data: " + bookingRequest);
-            
-            Booking updatedBooking = bookingService.updateBooking(
-                    bookingId,
-                    bookingRequest.getBookingDate(),
-                    bookingRequest.getStartTime(),
-                    bookingRequest.getEndTime(),
-                    bookingRequest.getStatusId(),
-                    bookingRequest.getTotalCost(),
-                    bookingRequest.getSpecialRequests(),
-                    bookingRequest.getPetId(),
-                    bookingRequest.getOwnerId(),
-                    bookingRequest.getSitterId() // This can be null
-            );
-            
-            return ResponseEntity.ok()
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Booking updated successfully",
-                        "booking", BookingResponse.toResponse(updatedBooking)
-                    ));
-        } catch (IllegalArgumentException e) {
-            System.err.println("Booking update error: " + e.getMessage());
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            System.err.println("Unexpected booking update error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to update booking: " + e.getMessage()
-                    ));
-        }
+        BookingResponse updatedBooking = bookingService.updateBooking(
+                bookingId,
+                bookingRequest.getBookingDate(),
+                bookingRequest.getStartTime(),
+                bookingRequest.getEndTime(),
+                bookingRequest.getStatusId(),
+                bookingRequest.getTotalCost(),
+                bookingRequest.getSpecialRequests(),
+                bookingRequest.getPetId(),
+                bookingRequest.getOwnerId(),
+                bookingRequest.getSitterId() // This can be null
+        );
+
+        return ResponseEntity.ok()
+                .body(Map.of(
+                    "success", true,
+                    "message", "Booking updated successfully",
+                    "booking", updatedBooking
+                ));
     }
 
     @PatchMapping("/{bookingId}/status")
     public ResponseEntity<?> updateBookingStatus(@PathVariable Long bookingId,
                                             @RequestParam Long statusId) {
-        try {
-            bookingService.updateBookingStatus(bookingId, statusId);
-            return ResponseEntity.ok()
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Booking status updated successfully"
-                    ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to update booking status: " + e.getMessage()
-                    ));
-        }
+        bookingService.updateBookingStatus(bookingId, statusId);
+        return ResponseEntity.ok()
+                .body(Map.of(
+                    "success", true,
+                    "message", "Booking status updated successfully"
+                ));
+    }
+
+    // Applies one status to many bookings at once (e.g. a sitter accepting a batch of requests).
+    // Every id gets an outcome; ids that are missing or not allowed to move are left unchanged.
+    @PostMapping("/status")
+    public ResponseEntity<?> updateBookingStatuses(@RequestBody @Valid BookingActionRequest actionRequest) {
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", bookingService.applyStatus(actionRequest.getBookingIds(), actionRequest.getStatusId())
+        ));
     }
 
     @DeleteMapping("/{bookingId}")
     public ResponseEntity<?> deleteBooking(@PathVariable Long bookingId) {
-        try {
-            bookingService.deleteBooking(bookingId);
-            return ResponseEntity.ok()
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Booking deleted successfully"
-                    ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to delete booking: " + e.getMessage()
-                    ));
-        }
+        bookingService.deleteBooking(bookingId);
+        return ResponseEntity.ok()
+                .body(Map.of(
+                    "success", true,
+                    "message", "Booking deleted successfully"
+                ));
     }
 
     // Additional helpful endpoints
+    // Bookings from today onwards (optionally only the next "days" days), filtered and
+    // paginated in the database like the main listing
     @GetMapping("/upcoming")
     public ResponseEntity<List<BookingResponse>> getUpcomingBookings(
             @RequestParam(name = "userId", required = false) Long userId,
-            @RequestParam(name = "userType", required = false) String userType) {
+            @RequestParam(name = "userType", required = false) String userType,
+            @RequestParam(name = "days", required = false) Integer days,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
 
-        LocalDate today = LocalDate.now();
-        List<BookingResponse> bookings;
+        Long sitterId = userId != null && "sitter".equalsIgnoreCase(userType) ? userId : null;
+        Long ownerId = userId != null && "owner".equalsIgnoreCase(userType) ? userId : null;
 
-        if (userId != null && "sitter".equalsIgnoreCase(userType)) {
-            bookings = bookingService.getBookingsBySitter(userId).stream()
-                    .filter(booking -> booking.getBookingDate().isAfter(today) || booking.getBookingDate().isEqual(today))
-                    .map(BookingResponse::toResponse)
-                    .toList();
-        } else if (userId != null && "owner".equalsIgnoreCase(userType)) {
-            bookings = bookingService.getBookingsByOwner(userId).stream()
-                    .filter(booking -> booking.getBookingDate().isAfter(today) || booking.getBookingDate().isEqual(today))
-                    .map(BookingResponse::toResponse)
-                    .toList();
-        } else {
-            bookings = bookingService.getBookings(null, null, null, null, null).stream()
-                    .filter(booking -> booking.getBookingDate().isAfter(today) || booking.getBookingDate().isEqual(today))
-                    .map(BookingResponse::toResponse)
-                    .toList();
-        }
-
-        return ResponseEntity.ok(bookings);
+        return bookingService.getUpcomingBookingResponses(ownerId, sitterId, days, cursor, limit)
+                .toResponseEntity();
     }
 
     @GetMapping("/availability/{sitterId}")
@@ -251,16 +193,32 @@ public class BookingController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) String startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) String endTime) {
 
-        try {
-            boolean isAvailable = bookingService.isTimeSlotAvailable(
-                    sitterId,
-                    date,
-                    java.time.LocalTime.parse(startTime),
-                    java.time.LocalTime.parse(endTime)
-            );
-            return ResponseEntity.ok(isAvailable);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        // An unparseable time is answered with 400 by GlobalExceptionHandler
+        boolean isAvailable = bookingService.isTimeSlotAvailable(
+                sitterId,
+                date,
+                java.time.LocalTime.parse(startTime),
+                java.time.LocalTime.parse(endTime)
+        );
+        return ResponseEntity.ok(isAvailable);
+    }
+
+    // Sitters free for the whole window, in one query instead of one availability call per sitter.
+    // sitterIds (comma separated) narrows the candidates.
+    @GetMapping("/availability")
+    public ResponseEntity<List<UserResponse>> getAvailableSitters(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+            @RequestParam(name = "sitterIds", required = false) @Size(max = 500) List<Long> sitterIds) {
+        return ResponseEntity.ok(bookingService.getAvailableSitters(date, startTime, endTime, sitterIds));
+    }
+
+    // Several candidate slots for one sitter, answered in request order
+    @PostMapping("/availability/{sitterId}/slots")
+    public ResponseEntity<List<SlotAvailability>> checkSlots(
+            @PathVariable Long sitterId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid SlotRequest> slots) {
+        return ResponseEntity.ok(bookingService.checkSlots(sitterId, slots));
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.whiskerwatch.demo.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.whiskerwatch.demo.controller.response.ImportReport;
+import com.example.whiskerwatch.demo.service.BulkImportService;
+
+// Bulk CSV uploads (multipart field "file"). Import users first, then pets, then bookings:
+// later files refer to earlier rows by owner/sitter email and pet name.
+@RestController
+@RequestMapping("/api/admin/import")
+@CrossOrigin(origins = "http://localhost:5173")
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportController {
+
+    private final BulkImportService importService;
+
+    public ImportController(BulkImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping("/users")
+    public ResponseEntity<?> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ok(importService.importUsers(csv));
+        }
+    }
+
+    @PostMapping("/pets")
+    public ResponseEntity<?> importPets(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ok(importService.importPets(csv));
+        }
+    }
+
+    @PostMapping("/bookings")
+    public ResponseEntity<?> importBookings(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ok(importService.importBookings(csv));
+        }
+    }
+
+    private static ResponseEntity<?> ok(ImportReport report) {
+        return ResponseEntity.ok(Map.of("success", true, "data", report));
+    }
+}
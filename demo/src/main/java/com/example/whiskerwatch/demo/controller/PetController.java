@@ -39,120 +39,76 @@ public class PetController {
     public ResponseEntity<List<PetResponse>> getPets(
             @RequestParam(name = "ownerId", required = false) Long ownerId,
             @RequestParam(name = "petType", required = false) String petType,
-            @RequestParam(name = "isActive", required = false) Boolean isActive) {
-        return ResponseEntity.ok(petService.getPets(ownerId, petType, isActive)
-                .stream()
-                .map(PetResponse::toResponse)
-                .toList());
+            @RequestParam(name = "isActive", required = false) Boolean isActive,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return petService.getPetResponses(ownerId, petType, isActive, cursor, limit).toResponseEntity();
     }
 
     @GetMapping("/{petId}")
     public ResponseEntity<PetResponse> getPet(@PathVariable Long petId) {
-        return petService.getPet(petId)
-                .map(PetResponse::toResponse)
+        return petService.getPetResponse(petId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<PetResponse>> getPetsByOwner(@PathVariable Long ownerId) {
-        return ResponseEntity.ok(petService.getPetsByOwner(ownerId)
-                .stream()
-                .map(PetResponse::toResponse)
-                .toList());
+    public ResponseEntity<List<PetResponse>> getPetsByOwner(
+            @PathVariable Long ownerId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return petService.getPetResponses(ownerId, null, null, cursor, limit).toResponseEntity();
     }
 
     @PostMapping
     public ResponseEntity<?> createPet(@RequestBody @Validated(CreateGroup.class) PetRequest petRequest) {
-        try {
-            Pet savedPet = petService.createPet(
-                petRequest.getName(),
-                petRequest.getAge(),
-                petRequest.getBreed(),
-                petRequest.getWeight(),
-                petRequest.getSpecialInstructions(),
-                petRequest.getOwnerId(),
-                petRequest.getTypeId()
-            );
-            
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Pet created successfully",
-                        "pet", PetResponse.toResponse(savedPet)
-                    ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to create pet: " + e.getMessage()
-                    ));
-        }
+        Pet savedPet = petService.createPet(
+            petRequest.getName(),
+            petRequest.getAge(),
+            petRequest.getBreed(),
+            petRequest.getWeight(),
+            petRequest.getSpecialInstructions(),
+            petRequest.getOwnerId(),
+            petRequest.getTypeId()
+        );
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of(
+                    "success", true,
+                    "message", "Pet created successfully",
+                    "pet", PetResponse.toResponse(savedPet)
+                ));
     }
 
     @PutMapping("/{petId}")
     public ResponseEntity<?> updatePet(@PathVariable Long petId,
                           @RequestBody @Validated(UpdateGroup.class) PetRequest petRequest) {
-        try {
-            petService.updatePet(
-                petId,
-                petRequest.getName(),
-                petRequest.getAge(),
-                petRequest.getBreed(),
-                petRequest.getWeight(),
-                petRequest.getSpecialInstructions(),
-                petRequest.getOwnerId(),
-                petRequest.getTypeId(),
-                petRequest.getIsActive()
-            );
-            
-            return ResponseEntity.ok()
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Pet updated successfully"
-                    ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to update pet: " + e.getMessage()
-                    ));
-        }
+        petService.updatePet(
+            petId,
+            petRequest.getName(),
+            petRequest.getAge(),
+            petRequest.getBreed(),
+            petRequest.getWeight(),
+            petRequest.getSpecialInstructions(),
+            petRequest.getOwnerId(),
+            petRequest.getTypeId(),
+            petRequest.getIsActive()
+        );
+
+        return ResponseEntity.ok()
+                .body(Map.of(
+                    "success", true,
+                    "message", "Pet updated successfully"
+                ));
     }
 
     @DeleteMapping("/{petId}")
     public ResponseEntity<?> deletePet(@PathVariable Long petId) {
-        try {
-            petService.deletePet(petId);
-            return ResponseEntity.ok()
-                    .body(Map.of(
-                        "success", true,
-                        "message", "Pet deleted successfully"
-                    ));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of(
-                        "success", false,
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false,
-                        "message", "Failed to delete pet: " + e.getMessage()
-                    ));
-        }
+        petService.deletePet(petId);
+        return ResponseEntity.ok()
+                .body(Map.of(
+                    "success", true,
+                    "message", "Pet deleted successfully"
+                ));
     }
-}
\ No newline at end of file
+}
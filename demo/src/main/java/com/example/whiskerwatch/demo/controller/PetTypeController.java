@@ -7,24 +7,25 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController; 
-import com.example.whiskerwatch.demo.repository.PetTypeJPARepository; 
+import com.example.whiskerwatch.demo.service.ReferenceDataRegistry;
 
 @RestController
 @RequestMapping("/api/pet-types")
 @CrossOrigin(origins = "http://localhost:5173")
 public class PetTypeController {
 
-    private final PetTypeJPARepository petTypeRepository;
+    private final ReferenceDataRegistry referenceData;
 
-    public PetTypeController(PetTypeJPARepository petTypeRepository) {
-        this.petTypeRepository = petTypeRepository;
+    public PetTypeController(ReferenceDataRegistry referenceData) {
+        this.referenceData = referenceData;
     }
 
     @GetMapping
     public List<PetTypeDTO> getAllPetTypes() {
-        return petTypeRepository.findAll()
+        // Served from memory; no query per page load
+        return referenceData.petTypes().entries()
                 .stream()
-                .map(petType -> new PetTypeDTO(petType.getId(), petType.getTypeName()))
+                .map(petType -> new PetTypeDTO(petType.id(), petType.name()))
                 .collect(Collectors.toList());
     }
 } 
\ No newline at end of file
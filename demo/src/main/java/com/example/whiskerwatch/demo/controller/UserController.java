@@ -16,11 +16,13 @@ import com.example.whiskerwatch.demo.controller.request.CreateGroup;
 import com.example.whiskerwatch.demo.controller.request.UpdateGroup;
 import com.example.whiskerwatch.demo.controller.request.UserRequest;
 import com.example.whiskerwatch.demo.controller.response.UserResponse;
+import com.example.whiskerwatch.demo.exception.ApiException;
+import com.example.whiskerwatch.demo.exception.ErrorCode;
 import com.example.whiskerwatch.demo.model.User;
-import com.example.whiskerwatch.demo.security.CustomUserDetailsService;
+import com.example.whiskerwatch.demo.security.UserPrincipal;
 import com.example.whiskerwatch.demo.service.UserService;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import com.example.whiskerwatch.demo.controller.request.PasswordChangeRequest; 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,10 +36,11 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordEncoder passwordEncoder;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, PasswordEncoder passwordEncoder) {
         this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @PutMapping("/{userId}/password")
@@ -46,32 +49,21 @@ public class UserController {
             @PathVariable Long userId,
             @RequestBody @Validated PasswordChangeRequest passwordRequest) {
         
-        try {
-            Optional<User> userOpt = userService.getUser(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            User user = userOpt.get();
-            
-            // Verify current password
-            if (!passwordEncoder.matches(passwordRequest.getCurrentPassword(), user.getPassword())) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("success", false, "message", "Current password is incorrect"));
-            }
-            
-            // Hash new password
-            String hashedNewPassword = passwordEncoder.encode(passwordRequest.getNewPassword());
-            
-            // Update password in database
-            userService.updatePassword(userId, hashedNewPassword);
-            
-            return ResponseEntity.ok(Map.of("success", true, "message", "Password updated successfully"));
-            
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Failed to update password"));
+        User user = userService.getUser(userId)
+                .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "User not found"));
+
+        // Verify current password
+        if (!passwordEncoder.matches(passwordRequest.getCurrentPassword(), user.getPassword())) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "Current password is incorrect");
         }
+
+        // Hash new password
+        String hashedNewPassword = passwordEncoder.encode(passwordRequest.getNewPassword());
+
+        // Update password in database
+        userService.updatePassword(userId, hashedNewPassword);
+
+        return ResponseEntity.ok(Map.of("success", true, "message", "Password updated successfully"));
     }
 
     // Get all users - Admin only
@@ -80,21 +72,17 @@ public class UserController {
     public ResponseEntity<List<UserResponse>> getUsers(
             @RequestParam(name = "email", required = false) String email,
             @RequestParam(name = "customerType", required = false) String customerType,
-            @RequestParam(name = "isActive", required = false) Boolean isActive) {
-        return ResponseEntity.ok(
-                userService.getUsers(email, customerType, isActive)
-                        .stream()
-                        .map(UserResponse::toResponse)
-                        .toList()
-        );
+            @RequestParam(name = "isActive", required = false) Boolean isActive,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return userService.getUserResponses(email, customerType, isActive, cursor, limit).toResponseEntity();
     }
 
     // Get user by ID - Admin or user themselves
     @GetMapping("/{userId}")
     @PreAuthorize("hasRole('ADMIN') or authentication.principal.userId == #userId")
     public ResponseEntity<UserResponse> getUser(@PathVariable Long userId) {
-        return userService.getUser(userId)
-                .map(UserResponse::toResponse)
+        return userService.getUserResponse(userId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -103,10 +91,11 @@ public class UserController {
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetailsService.CustomUserPrincipal) {
-            CustomUserDetailsService.CustomUserPrincipal userPrincipal = 
-                (CustomUserDetailsService.CustomUserPrincipal) authentication.getPrincipal();
-            return ResponseEntity.ok(UserResponse.toResponse(userPrincipal.getUser()));
+        // Principals are detached snapshots; the entity is only loaded here, where it is actually needed
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userService.getUserResponse(userPrincipal.getUserId())
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
@@ -114,46 +103,25 @@ public class UserController {
     // Register (Signup) user - Public endpoint
     @PostMapping
     public ResponseEntity<?> createUser(@RequestBody @Validated(CreateGroup.class) UserRequest userRequest) {
-        try {
-            System.out.println("Creating user with data: " + userRequest);
-            
-            User savedUser = userService.createUser(
-                    userRequest.getUsername(),
-                    userRequest.getEmail(),
-                    userRequest.getPassword(),
-                    userRequest.getRoleId(),           // null is OK – defaults to CUSTOMER
-                    userRequest.getCustomerTypeId(),
-                    userRequest.getFirstName(),
-                    userRequest.getLastName(),
-                    userRequest.getPhoneNumber(),
-                    userRequest.getAddress()
-            );
-
-            System.out.println("User created successfully with ID: " + savedUser.getId());
+        User savedUser = userService.createUser(
+                userRequest.getUsername(),
+                userRequest.getEmail(),
+                userRequest.getPassword(),
+                userRequest.getRoleId(),           // null is OK – defaults to CUSTOMER
+                userRequest.getCustomerTypeId(),
+                userRequest.getFirstName(),
+                userRequest.getLastName(),
+                userRequest.getPhoneNumber(),
+                userRequest.getAddress()
+        );
 
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body(Map.of(
-                            "success", true,
-                            "message", "User registered successfully",
-                            "userId", savedUser.getId()
-                    ));
-        } catch (IllegalArgumentException e) {
-            System.err.println("User creation validation error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of(
-                            "success", false,
-                            "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            System.err.println("User creation error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                            "success", false,
-                            "message", "Failed to create user: " + e.getMessage()
-                    ));
-        }
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(Map.of(
+                        "success", true,
+                        "message", "User registered successfully",
+                        "userId", savedUser.getId()
+                ));
     }
 
     
@@ -162,104 +130,56 @@ public class UserController {
     public ResponseEntity<?> updateUser(
             @PathVariable Long userId,
             @RequestBody @Validated(UpdateGroup.class) UserRequest userRequest) {
-        try {
-            System.out.println("Updating user " + userId + " with data: " + userRequest);
-            
-            userService.updateUser(
-                    userId,
-                    userRequest.getUsername(),
-                    userRequest.getEmail(),
-                    userRequest.getPassword(),
-                    userRequest.getRoleId(),
-                    userRequest.getCustomerTypeId(),
-                    userRequest.getFirstName(),
-                    userRequest.getLastName(),
-                    userRequest.getPhoneNumber(),
-                    userRequest.getAddress(),
-                    userRequest.getIsActive()
-            );
-            
-            System.out.println("User " + userId + " updated successfully");
-            
-            return ResponseEntity.ok(Map.of(
-                "success", true, 
-                "message", "User updated successfully"
-            ));
-        } catch (IllegalArgumentException e) {
-            System.err.println("User update validation error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of(
-                        "success", false, 
-                        "message", e.getMessage()
-                    ));
-        } catch (Exception e) {
-            System.err.println("User update error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                        "success", false, 
-                        "message", "Failed to update user: " + e.getMessage()
-                    ));
-        }
+        userService.updateUser(
+                userId,
+                userRequest.getUsername(),
+                userRequest.getEmail(),
+                userRequest.getPassword(),
+                userRequest.getRoleId(),
+                userRequest.getCustomerTypeId(),
+                userRequest.getFirstName(),
+                userRequest.getLastName(),
+                userRequest.getPhoneNumber(),
+                userRequest.getAddress(),
+                userRequest.getIsActive()
+        );
+
+        return ResponseEntity.ok(Map.of(
+            "success", true, 
+            "message", "User updated successfully"
+        ));
     }
 
 
     @DeleteMapping("/{userId}")
     @PreAuthorize("hasRole('ADMIN') or authentication.principal.userId == #userId")
     public ResponseEntity<?> deleteUser(@PathVariable Long userId, @RequestBody(required = false) Map<String, String> deleteRequest) {
-        try {
-            System.out.println("Delete request for user " + userId + " with data: " + deleteRequest);
-            
-            // Get current user from security context
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            // If it's the user deleting their own account, verify password
-            if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetailsService.CustomUserPrincipal) {
-                CustomUserDetailsService.CustomUserPrincipal userPrincipal = 
-                    (CustomUserDetailsService.CustomUserPrincipal) authentication.getPrincipal();
-                
-                // If user is deleting their own account, require password verification
-                if (userPrincipal.getUserId().equals(userId) && deleteRequest != null) {
-                    String password = deleteRequest.get("password");
-                    if (password != null && !password.isEmpty()) {
-                        // Verify password
-                        Optional<User> userOpt = userService.getUser(userId);
-                        if (userOpt.isPresent()) {
-                            User user = userOpt.get();
-                            if (!passwordEncoder.matches(password, user.getPassword())) {
-                                System.err.println("Invalid password for user deletion: " + userId);
-                                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                        .body(Map.of("success", false, "message", "Invalid password"));
-                            }
-                        } else {
-                            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                                    .body(Map.of("success", false, "message", "User not found"));
-                        }
-                    } else {
-                        System.err.println("Password required for user deletion: " + userId);
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                .body(Map.of("success", false, "message", "Password is required"));
-                    }
-                }
+        // Get current user from security context
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // If user is deleting their own account, require password verification
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal
+                && userPrincipal.getUserId().equals(userId) && deleteRequest != null) {
+            String password = deleteRequest.get("password");
+            if (password == null || password.isEmpty()) {
+                throw new ApiException(ErrorCode.BAD_REQUEST, "Password is required");
+            }
+            User user = userService.getUser(userId)
+                    .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "User not found"));
+            if (!passwordEncoder.matches(password, user.getPassword())) {
+                throw new ApiException(ErrorCode.BAD_REQUEST, "Invalid password");
             }
-            
-            System.out.println("Proceeding with user deletion: " + userId);
+        }
+
+        try {
             userService.deleteUser(userId);
-            System.out.println("User " + userId + " deleted successfully");
-            
-            return ResponseEntity.ok(Map.of(
-                "success", true, 
-                "message", "Account deleted successfully"
-            ));
         } catch (IllegalArgumentException e) {
-            System.err.println("User not found for deletion: " + userId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("success", false, "message", "User not found"));
-        } catch (Exception e) {
-            System.err.println("User deletion error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("success", false, "message", "Failed to delete account"));
+            throw new ApiException(ErrorCode.NOT_FOUND, "User not found");
         }
+
+        return ResponseEntity.ok(Map.of(
+            "success", true, 
+            "message", "Account deleted successfully"
+        ));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.example.whiskerwatch.demo.controller.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingActionRequest {
+
+    @NotEmpty(message = "Booking ids are required")
+    @Size(max = 500, message = "At most 500 bookings per request")
+    private List<@NotNull Long> bookingIds;
+
+    @NotNull(message = "Status ID is required")
+    private Long statusId;
+}
@@ -0,0 +1,14 @@
+package com.example.whiskerwatch.demo.controller.response;
+
+// What a bulk status change did to one requested booking. status is the booking's status
+// after the request: the new one when UPDATED or UNCHANGED (it already had it, so retries
+// are safe), the unchanged one when NOT_ALLOWED.
+public record BookingActionResult(Long bookingId, Outcome outcome, String status) {
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_ALLOWED,
+        NOT_FOUND
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.whiskerwatch.demo.controller.response;
 
-import com.example.whiskerwatch.demo.model.Booking;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -38,33 +37,4 @@ public class BookingResponse {
     private Long sitterId;
     private String sitterName;
     private String sitterEmail;
-
-    public static BookingResponse toResponse(Booking booking) {
-        return new BookingResponse(
-                booking.getId(),
-                booking.getBookingDate(),
-                booking.getStartTime(),
-                booking.getEndTime(),
-                booking.getStatus() != null ? booking.getStatus().getStatusName() : null,
-                booking.getTotalCost(),
-                booking.getSpecialRequests(),
-                booking.getCreatedAt(),
-                booking.getUpdatedAt(),
-
-                // Pet information
-                booking.getPet() != null ? booking.getPet().getId() : null,
-                booking.getPet() != null ? booking.getPet().getName() : null,
-                booking.getPet() != null && booking.getPet().getType() != null ? booking.getPet().getType().getTypeName() : null,
-
-                // Owner information
-                booking.getOwner() != null ? booking.getOwner().getId() : null,
-                booking.getOwner() != null ? booking.getOwner().getFirstName() + " " + booking.getOwner().getLastName() : null,
-                booking.getOwner() != null ? booking.getOwner().getEmail() : null,
-
-                // Sitter information
-                booking.getSitter() != null ? booking.getSitter().getId() : null,
-                booking.getSitter() != null ? booking.getSitter().getFirstName() + " " + booking.getSitter().getLastName() : null,
-                booking.getSitter() != null ? booking.getSitter().getEmail() : null
-        );
-    }
-}
\ No newline at end of file
+}
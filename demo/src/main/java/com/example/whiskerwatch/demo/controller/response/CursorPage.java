@@ -0,0 +1,20 @@
+package com.example.whiskerwatch.demo.controller.response;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing. The body stays a plain JSON array; the opaque
+// cursor for the next page travels in the X-Next-Cursor header and is absent on the last page.
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(items);
+    }
+}
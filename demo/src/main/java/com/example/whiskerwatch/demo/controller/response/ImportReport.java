@@ -0,0 +1,11 @@
+package com.example.whiskerwatch.demo.controller.response;
+
+import java.util.List;
+
+// Outcome of one CSV import. Rows listed in errors were skipped; everything else was loaded.
+public record ImportReport(String kind, int totalRows, int imported, int rejected,
+                           List<RowError> errors, boolean errorsTruncated, long elapsedMillis) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -1,4 +1,5 @@
 package com.example.whiskerwatch.demo.controller.response;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -6,9 +7,12 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // lean by default: the profile is only sent when requested
 public class JwtResponse {
     private String accessToken;
     private String tokenType;
+    private Long expiresIn; // access token lifetime in seconds
+    private String refreshToken;
     private Long userId;
     private String email;
     private String role;
@@ -0,0 +1,7 @@
+package com.example.whiskerwatch.demo.controller.response;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record SlotAvailability(LocalDate date, LocalTime startTime, LocalTime endTime, boolean available) {
+}
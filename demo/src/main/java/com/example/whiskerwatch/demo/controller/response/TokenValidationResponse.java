@@ -0,0 +1,35 @@
+package com.example.whiskerwatch.demo.controller.response;
+
+import com.example.whiskerwatch.demo.security.JwtClaims;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@NoArgsConstructor
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenValidationResponse {
+    private boolean valid;
+    private Long userId;
+    private String email;
+    private String role;
+    private String customerType;
+    private Date expiresAt;
+    private UserResponse user; // only when the expanded profile was requested
+
+    public static TokenValidationResponse fromClaims(JwtClaims claims, UserResponse user) {
+        return new TokenValidationResponse(
+                true,
+                claims.getUserId(),
+                claims.getSubject(),
+                claims.getRole(),
+                claims.getCustomerType(),
+                claims.getExpiration(),
+                user
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.whiskerwatch.demo.exception;
+
+// Thrown from controllers and services to end a request with a specific error code;
+// turned into a response by GlobalExceptionHandler.
+public class ApiException extends RuntimeException {
+    private final ErrorCode errorCode;
+
+    public ApiException(ErrorCode errorCode) {
+        super(errorCode.getDefaultMessage());
+        this.errorCode = errorCode;
+    }
+
+    public ApiException(ErrorCode errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
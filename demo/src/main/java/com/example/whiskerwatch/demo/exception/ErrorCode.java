@@ -0,0 +1,53 @@
+package com.example.whiskerwatch.demo.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Error codes returned in the "code" field of every error body. Each code has a fixed
+// status and a default message; bodies using the default message are serialized once
+// by ErrorResponses and served from cached bytes.
+public enum ErrorCode {
+    BAD_REQUEST(HttpStatus.BAD_REQUEST, "Invalid request"),
+    VALIDATION_FAILED(HttpStatus.BAD_REQUEST, "Request validation failed"),
+    INVALID_AUTH_HEADER(HttpStatus.BAD_REQUEST, "Invalid authorization header"),
+    UNAUTHORIZED(HttpStatus.UNAUTHORIZED, "Authentication required to access this resource"),
+    INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, "Invalid email or password"),
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid or expired token"),
+    INVALID_REFRESH_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token"),
+    ACCESS_DENIED(HttpStatus.FORBIDDEN, "Access denied"),
+    NOT_FOUND(HttpStatus.NOT_FOUND, "Resource not found"),
+    METHOD_NOT_ALLOWED(HttpStatus.METHOD_NOT_ALLOWED, "Method not allowed"),
+    CONFLICT(HttpStatus.CONFLICT, "Request conflicts with the current state of the resource"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many requests. Please try again later."),
+    SERVICE_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Please try again shortly."),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+
+    private final HttpStatus status;
+    private final String defaultMessage;
+
+    ErrorCode(HttpStatus status, String defaultMessage) {
+        this.status = status;
+        this.defaultMessage = defaultMessage;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getDefaultMessage() {
+        return defaultMessage;
+    }
+
+    // Best match for framework exceptions that only carry a status code
+    public static ErrorCode forStatus(int status) {
+        return switch (status) {
+            case 401 -> UNAUTHORIZED;
+            case 403 -> ACCESS_DENIED;
+            case 404 -> NOT_FOUND;
+            case 405 -> METHOD_NOT_ALLOWED;
+            case 409 -> CONFLICT;
+            case 429 -> TOO_MANY_REQUESTS;
+            case 503 -> SERVICE_BUSY;
+            default -> status >= 400 && status < 500 ? BAD_REQUEST : INTERNAL_ERROR;
+        };
+    }
+}
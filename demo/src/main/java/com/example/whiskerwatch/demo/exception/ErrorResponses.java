@@ -0,0 +1,85 @@
+package com.example.whiskerwatch.demo.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Builds the standard error body {"success":false,"code":...,"message":...}.
+// Bodies that use the code's default message never change, so they are serialized once
+// at startup and written as cached bytes; only custom messages go through the mapper.
+@Component
+public class ErrorResponses {
+
+    private static final byte[] PATH_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Map<ErrorCode, byte[]> defaultBodies = new EnumMap<>(ErrorCode.class);
+    // Default body with the closing brace replaced by ,"path":" so the request path can be appended
+    private final Map<ErrorCode, byte[]> pathPrefixes = new EnumMap<>(ErrorCode.class);
+
+    public ErrorResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (ErrorCode code : ErrorCode.values()) {
+            byte[] body = serialize(code, code.getDefaultMessage());
+            defaultBodies.put(code, body);
+
+            byte[] field = ",\"path\":\"".getBytes(StandardCharsets.UTF_8);
+            byte[] prefix = new byte[body.length - 1 + field.length];
+            System.arraycopy(body, 0, prefix, 0, body.length - 1);
+            System.arraycopy(field, 0, prefix, body.length - 1, field.length);
+            pathPrefixes.put(code, prefix);
+        }
+    }
+
+    public ResponseEntity<byte[]> of(ErrorCode code) {
+        return ResponseEntity.status(code.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(defaultBodies.get(code));
+    }
+
+    public ResponseEntity<byte[]> of(ErrorCode code, String message) {
+        if (message == null || message.equals(code.getDefaultMessage())) {
+            return of(code);
+        }
+        return ResponseEntity.status(code.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serialize(code, message));
+    }
+
+    // For callers outside Spring MVC (security entry point and access denied handler)
+    public void write(HttpServletResponse response, ErrorCode code, String path) throws IOException {
+        byte[] prefix = pathPrefixes.get(code);
+        byte[] escapedPath = JsonStringEncoder.getInstance().quoteAsUTF8(path != null ? path : "");
+
+        response.setStatus(code.getStatus().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(prefix.length + escapedPath.length + PATH_SUFFIX.length);
+        OutputStream out = response.getOutputStream();
+        out.write(prefix);
+        out.write(escapedPath);
+        out.write(PATH_SUFFIX);
+    }
+
+    private byte[] serialize(ErrorCode code, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("code", code.name());
+        body.put("message", message);
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize error body", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.whiskerwatch.demo.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.sql.SQLException;
+import java.time.DateTimeException;
+
+// Single place where exceptions become HTTP responses. Controllers throw instead of
+// building error bodies themselves.
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final ErrorResponses errorResponses;
+
+    public GlobalExceptionHandler(ErrorResponses errorResponses) {
+        this.errorResponses = errorResponses;
+    }
+
+    @ExceptionHandler(RequestThrottledException.class)
+    public ResponseEntity<byte[]> handleThrottled(RequestThrottledException e) {
+        ResponseEntity<byte[]> response = errorResponses.of(e.getErrorCode());
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<byte[]> handleApi(ApiException e) {
+        return errorResponses.of(e.getErrorCode(), e.getMessage());
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<byte[]> handleServiceBusy(ServiceBusyException e) {
+        return errorResponses.of(ErrorCode.SERVICE_BUSY);
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<byte[]> handleNotFound(ResourceNotFoundException e) {
+        return errorResponses.of(ErrorCode.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<byte[]> handleBookingConflict(BookingConflictException e) {
+        return errorResponses.of(ErrorCode.CONFLICT, e.getMessage());
+    }
+
+    // Writes bind foreign keys through unloaded references, so a row removed between the check
+    // and the INSERT surfaces here as a constraint violation rather than as "not found"
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<byte[]> handleDataIntegrity(DataIntegrityViolationException e) {
+        String sqlState = null;
+        for (Throwable cause = e; cause != null && sqlState == null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                sqlState = sqlException.getSQLState();
+            }
+        }
+        if ("23503".equals(sqlState)) {
+            return errorResponses.of(ErrorCode.BAD_REQUEST, "Referenced record does not exist");
+        }
+        if ("23505".equals(sqlState)) {
+            return errorResponses.of(ErrorCode.CONFLICT);
+        }
+        return errorResponses.of(ErrorCode.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleIllegalArgument(IllegalArgumentException e) {
+        return errorResponses.of(ErrorCode.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<byte[]> handleInvalidBody(MethodArgumentNotValidException e) {
+        FieldError fieldError = e.getBindingResult().getFieldError();
+        return errorResponses.of(ErrorCode.VALIDATION_FAILED,
+                fieldError != null ? fieldError.getField() + ": " + fieldError.getDefaultMessage() : null);
+    }
+
+    // TypeMismatchException covers path variables and request parameters that do not convert
+    // (/api/bookings/abc, ?limit=x); it does not implement ErrorResponse
+    @ExceptionHandler({ConstraintViolationException.class, HttpMessageNotReadableException.class,
+            DateTimeException.class, TypeMismatchException.class})
+    public ResponseEntity<byte[]> handleUnreadable(Exception e) {
+        return errorResponses.of(ErrorCode.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<byte[]> handleAccessDenied(AccessDeniedException e) {
+        return errorResponses.of(ErrorCode.ACCESS_DENIED);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<byte[]> handleAuthentication(AuthenticationException e) {
+        return errorResponses.of(ErrorCode.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleUnexpected(Exception e) {
+        // Framework exceptions (unknown path, wrong method, missing parameter...) carry their own status
+        if (e instanceof ErrorResponse errorResponse) {
+            return errorResponses.of(ErrorCode.forStatus(errorResponse.getStatusCode().value()));
+        }
+        log.error("Unhandled exception", e);
+        return errorResponses.of(ErrorCode.INTERNAL_ERROR);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.whiskerwatch.demo.exception;
+
+public class RequestThrottledException extends ApiException {
+    private final long retryAfterSeconds;
+
+    public RequestThrottledException(long retryAfterSeconds) {
+        super(ErrorCode.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.whiskerwatch.demo.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+// Dirty-checked updates write only the changed columns
+@DynamicUpdate
 @Entity
 @Table(name = "bookings")
 @Getter
@@ -17,8 +21,10 @@ import java.time.LocalTime;
 @NoArgsConstructor
 public class Booking {
 
+    // Pooled ids (sequence INCREMENT BY 50): one nextval per 50 inserts, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "booking_date", nullable = false)
@@ -34,6 +40,12 @@ public class Booking {
     @JoinColumn(name = "status_id", nullable = false)
     private BookingStatus status;
 
+    // Read-only view of status_id for queries, so status filters and counts need no join.
+    // Written through status only.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "status_id", insertable = false, updatable = false)
+    private Long statusId;
+
     @Column(name = "total_cost", precision = 10, scale = 2)
     private BigDecimal totalCost;
 
@@ -58,6 +70,12 @@ public class Booking {
     @JoinColumn(name = "sitter_id", nullable = true) // allow null
     private User sitter;
 
+    // From the status FK; getId() on the lazy proxy does not load it. Unlike statusId this
+    // already reflects a setStatus made in the current session.
+    public BookingState getState() {
+        return status != null ? BookingState.fromId(status.getId()).orElse(null) : null;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
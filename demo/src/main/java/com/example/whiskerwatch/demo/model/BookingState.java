@@ -0,0 +1,100 @@
+package com.example.whiskerwatch.demo.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// The rows of booking_statuses as a type, keyed by their seeded ids (schema.sql).
+// ReferenceDataRegistry refuses to load if the table disagrees.
+public enum BookingState {
+    PENDING(1),
+    CONFIRMED(2),
+    IN_PROGRESS(3),
+    COMPLETED(4),
+    CANCELLED(5),
+    REJECTED(6);
+
+    // Ids of the states that do not hold a slot, for JPQL and SQL written as constants
+    public static final String INACTIVE_IDS = "5, 6";
+
+    private static final BookingState[] BY_ID = new BookingState[values().length + 1];
+
+    // State -> states a status change may move it to. Cancelled, rejected and completed are
+    // final. EnumSet is a single long bitmask, so canMoveTo is one bit test.
+    private static final Map<BookingState, Set<BookingState>> NEXT = new EnumMap<>(BookingState.class);
+    private static final Map<BookingState, Set<BookingState>> PREVIOUS = new EnumMap<>(BookingState.class);
+
+    static {
+        for (BookingState state : values()) {
+            BY_ID[(int) state.id] = state;
+            NEXT.put(state, EnumSet.noneOf(BookingState.class));
+            PREVIOUS.put(state, EnumSet.noneOf(BookingState.class));
+        }
+        allow(PENDING, CONFIRMED, REJECTED, CANCELLED);
+        allow(CONFIRMED, IN_PROGRESS, COMPLETED, CANCELLED);
+        allow(IN_PROGRESS, COMPLETED);
+
+        String inactiveIds = Arrays.stream(values())
+                .filter(state -> !state.isActive())
+                .map(state -> Long.toString(state.id))
+                .collect(Collectors.joining(", "));
+        if (!INACTIVE_IDS.equals(inactiveIds)) {
+            throw new IllegalStateException("INACTIVE_IDS should be " + inactiveIds);
+        }
+    }
+
+    private final long id;
+
+    BookingState(long id) {
+        this.id = id;
+    }
+
+    private static void allow(BookingState from, BookingState... to) {
+        for (BookingState next : to) {
+            NEXT.get(from).add(next);
+            PREVIOUS.get(next).add(from);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public static Optional<BookingState> fromId(Long id) {
+        if (id == null || id < 1 || id >= BY_ID.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(BY_ID[id.intValue()]);
+    }
+
+    public static Optional<BookingState> fromName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Cancelled and rejected bookings give their slot back
+    public boolean isActive() {
+        return this != CANCELLED && this != REJECTED;
+    }
+
+    public boolean canMoveTo(BookingState next) {
+        return NEXT.get(this).contains(next);
+    }
+
+    // States a status change may move a booking to this one from
+    public Set<BookingState> previousStates() {
+        return Collections.unmodifiableSet(PREVIOUS.get(this));
+    }
+}
@@ -15,7 +15,8 @@ import java.util.Set;
 public class BookingStatus {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_statuses_id_seq")
+    @SequenceGenerator(name = "booking_statuses_id_seq", sequenceName = "booking_statuses_id_seq", allocationSize = 1)
     private Long id;
 
     @Column(name = "status_name", unique = true, nullable = false, length = 20)
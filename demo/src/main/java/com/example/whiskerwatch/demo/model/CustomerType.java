@@ -1,6 +1,8 @@
 package com.example.whiskerwatch.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,13 +11,16 @@ import java.util.Set;
 
 @Entity
 @Table(name = "customer_types")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "customerTypes")
 @Getter
 @Setter
 @NoArgsConstructor
 public class CustomerType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_types_id_seq")
+    @SequenceGenerator(name = "customer_types_id_seq", sequenceName = "customer_types_id_seq", allocationSize = 1)
     private Long id;
 
     @Column(name = "type_name", unique = true, nullable = false, length = 20)
@@ -15,7 +15,8 @@ import java.util.Set;
 public class PetType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pet_types_id_seq")
+    @SequenceGenerator(name = "pet_types_id_seq", sequenceName = "pet_types_id_seq", allocationSize = 1)
     private Long id;
 
     @Column(name = "type_name", unique = true, nullable = false, length = 50)
@@ -0,0 +1,5 @@
+package com.example.whiskerwatch.demo.repository;
+
+// Number of rows with one value of an is_active flag
+public record ActiveCount(Boolean isActive, long count) {
+}
@@ -1,7 +1,8 @@
 package com.example.whiskerwatch.demo.repository;
 
+import com.example.whiskerwatch.demo.controller.response.BookingResponse;
 import com.example.whiskerwatch.demo.model.Booking;
-import com.example.whiskerwatch.demo.model.BookingStatus;
+import com.example.whiskerwatch.demo.model.BookingState;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -11,82 +12,76 @@ import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
-
-public interface BookingJPARepository extends JpaRepository<Booking, Long> {
-    // Find bookings by owner ID
-    List<Booking> findByOwnerId(Long ownerId);
-
-    // Find bookings by sitter ID
-    List<Booking> findBySitterId(Long sitterId);
-
-    // Find bookings by pet ID
-    List<Booking> findByPetId(Long petId);
-
-    // Find bookings by status name
-    List<Booking> findByStatus(BookingStatus status);
-
-    // Find bookings by booking date
-    List<Booking> findByBookingDate(LocalDate bookingDate);
-
-    // Find bookings between date range
-    List<Booking> findByBookingDateBetween(LocalDate startDate, LocalDate endDate);
-
-    // Find bookings by sitter and date
-    List<Booking> findBySitterIdAndBookingDate(Long sitterId, LocalDate bookingDate);
-
-    // Find bookings by owner and date range
-    List<Booking> findByOwnerIdAndBookingDateBetween(Long ownerId, LocalDate startDate, LocalDate endDate);
-
-    // Custom query to find overlapping time slots for a sitter on a specific date
-    @Query("SELECT b FROM Booking b WHERE b.sitter.id = :sitterId AND b.bookingDate = :date " +
-            "AND ((b.startTime <= :endTime AND b.endTime >= :startTime))")
-    List<Booking> findBySitterIdAndBookingDateAndTimeOverlap(@Param("sitterId") Long sitterId,
-                                                             @Param("date") LocalDate date,
-                                                             @Param("startTime") LocalTime startTime,
-                                                             @Param("endTime") LocalTime endTime);
-
-    // Find upcoming bookings for a sitter
-    @Query("SELECT b FROM Booking b WHERE b.sitter.id = :sitterId AND b.bookingDate >= :currentDate ORDER BY b.bookingDate, b.startTime")
-    List<Booking> findUpcomingBookingsBySitter(@Param("sitterId") Long sitterId, @Param("currentDate") LocalDate currentDate);
-
-    // Find upcoming bookings for an owner
-    @Query("SELECT b FROM Booking b WHERE b.owner.id = :ownerId AND b.bookingDate >= :currentDate ORDER BY b.bookingDate, b.startTime")
-    List<Booking> findUpcomingBookingsByOwner(@Param("ownerId") Long ownerId, @Param("currentDate") LocalDate currentDate);
-
-    // Find bookings by pet and date range
-    List<Booking> findByPetIdAndBookingDateBetween(Long petId, LocalDate startDate, LocalDate endDate);
-
-    // Count bookings by status
-    long countByStatusStatusName(String statusName);
-
-    // Count bookings by sitter
-    long countBySitterId(Long sitterId);
-
-    // Count bookings by owner
-    long countByOwnerId(Long ownerId);
-
-    // Find bookings by multiple criteria
-    @Query("SELECT b FROM Booking b WHERE " +
-            "(:ownerId IS NULL OR b.owner.id = :ownerId) AND " +
-            "(:sitterId IS NULL OR b.sitter.id = :sitterId) AND " +
-            "(:petId IS NULL OR b.pet.id = :petId) AND " +
-            "(:statusName IS NULL OR b.status.statusName = :statusName) AND " +
-            "(:bookingDate IS NULL OR b.bookingDate = :bookingDate)")
-    List<Booking> findBookingsByCriteria(@Param("ownerId") Long ownerId,
-                                         @Param("sitterId") Long sitterId,
-                                         @Param("petId") Long petId,
-                                         @Param("statusName") String statusName,
-                                         @Param("bookingDate") LocalDate bookingDate);
-
-    // NEW: Delete methods for user deletion
-    @Modifying
-    @Query("DELETE FROM Booking b WHERE b.owner.id = :userId")
-    void deleteByOwnerId(@Param("userId") Long userId);
-
-    @Modifying
-    @Query("DELETE FROM Booking b WHERE b.sitter.id = :userId")
-    void deleteBySitterId(@Param("userId") Long userId);
-
+import java.util.Optional;
+
+public interface BookingJPARepository extends JpaRepository<Booking, Long>, BookingJPARepositoryCustom {
+    // Read-only projection straight into BookingResponse: only the rendered columns are
+    // selected and no managed entities (or dirty-check snapshots) are created.
+    String BOOKING_RESPONSE_SELECT = "SELECT new com.example.whiskerwatch.demo.controller.response.BookingResponse(" +
+            "b.id, b.bookingDate, b.startTime, b.endTime, s.statusName, b.totalCost, b.specialRequests, " +
+            "b.createdAt, b.updatedAt, " +
+            "p.id, p.name, t.typeName, " +
+            "o.id, CONCAT(o.firstName, ' ', o.lastName), o.email, " +
+            "si.id, CONCAT(si.firstName, ' ', si.lastName), si.email) " +
+            "FROM Booking b JOIN b.status s JOIN b.pet p JOIN p.type t JOIN b.owner o LEFT JOIN b.sitter si ";
+
+    @Query(BOOKING_RESPONSE_SELECT + "WHERE b.id = :bookingId")
+    Optional<BookingResponse> findResponseById(@Param("bookingId") Long bookingId);
+
+    // Transaction-scoped PostgreSQL advisory locks, released on commit or rollback: first the
+    // all-schedules key (0, 0) in shared mode, which only the CSV import takes exclusively
+    // (BulkImportRepository.lockAllSchedules), then sitter (namespace 1) before pet (namespace 2).
+    // They serialize writers that touch the same schedule.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(0, 0), " +
+            "pg_advisory_xact_lock(1, :sitterKey), pg_advisory_xact_lock(2, :petKey)) AS l",
+            nativeQuery = true)
+    Integer lockSitterAndPetSchedules(@Param("sitterKey") int sitterKey, @Param("petKey") int petKey);
+
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(0, 0), pg_advisory_xact_lock(2, :petKey)) AS l",
+            nativeQuery = true)
+    Integer lockPetSchedule(@Param("petKey") int petKey);
+
+    // One round trip for a booking write: the pet (with its owner), owner and sitter rows the
+    // response needs, plus whether an active booking other than excludeId overlaps the window
+    // for the sitter or the pet. Pass sitterId = 0 when there is none. Must run after the
+    // advisory locks, as its own statement, so its snapshot includes the previous lock holder.
+    @Query(value = "SELECT p.owner_id AS \"petOwnerId\", p.name AS \"petName\", pt.type_name AS \"petTypeName\", " +
+            "o.id AS \"ownerId\", o.first_name AS \"ownerFirstName\", o.last_name AS \"ownerLastName\", " +
+            "o.email AS \"ownerEmail\", " +
+            "si.id AS \"sitterId\", si.first_name AS \"sitterFirstName\", si.last_name AS \"sitterLastName\", " +
+            "si.email AS \"sitterEmail\", " +
+            "EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.sitter_id = :sitterId AND b.booking_date = :date AND b.start_time <= :endTime " +
+            "AND b.end_time >= :startTime AND b.id <> :excludeId " +
+            "AND b.status_id NOT IN (" + BookingState.INACTIVE_IDS + ")) AS \"sitterConflict\", " +
+            "EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.pet_id = :petId AND b.booking_date = :date AND b.start_time <= :endTime " +
+            "AND b.end_time >= :startTime AND b.id <> :excludeId " +
+            "AND b.status_id NOT IN (" + BookingState.INACTIVE_IDS + ")) AS \"petConflict\" " +
+            "FROM (SELECT 1) AS one " +
+            "LEFT JOIN pets p ON p.id = :petId " +
+            "LEFT JOIN pet_types pt ON pt.id = p.type_id " +
+            "LEFT JOIN users o ON o.id = :ownerId " +
+            "LEFT JOIN users si ON si.id = :sitterId",
+            nativeQuery = true)
+    BookingWriteCheck checkBookingWrite(@Param("petId") Long petId, @Param("ownerId") Long ownerId,
+                                        @Param("sitterId") Long sitterId, @Param("date") LocalDate date,
+                                        @Param("startTime") LocalTime startTime, @Param("endTime") LocalTime endTime,
+                                        @Param("excludeId") Long excludeId);
+
+    // Slots that occupy a sitter on one day: everything except cancelled and rejected bookings.
+    // Feeds SitterScheduleIndex.
+    @Query("SELECT new com.example.whiskerwatch.demo.repository.TimeSlot(b.startTime, b.endTime) FROM Booking b " +
+            "WHERE b.sitter.id = :sitterId AND b.bookingDate = :date " +
+            "AND b.statusId NOT IN (" + BookingState.INACTIVE_IDS + ")")
+    List<TimeSlot> findActiveSlots(@Param("sitterId") Long sitterId, @Param("date") LocalDate date);
+
+    // Booking count per status id, grouped on the FK column without joining booking_statuses
+    @Query("SELECT new com.example.whiskerwatch.demo.repository.StatusCount(b.statusId, COUNT(b)) " +
+            "FROM Booking b GROUP BY b.statusId")
+    List<StatusCount> countByStatus();
+
+    // Removes every booking the user takes part in, as owner or sitter, before the user is deleted
     @Modifying
     @Query("DELETE FROM Booking b WHERE b.owner.id = :userId OR b.sitter.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
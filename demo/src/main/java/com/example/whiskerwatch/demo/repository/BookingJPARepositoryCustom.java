@@ -0,0 +1,17 @@
+package com.example.whiskerwatch.demo.repository;
+
+import com.example.whiskerwatch.demo.controller.response.BookingResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingJPARepositoryCustom {
+    // Booking search built with the Criteria API so each filter combination gets its own
+    // tight statement instead of one query full of (:x IS NULL OR ...) branches
+    List<BookingResponse> search(BookingSearchCriteria criteria, int limit);
+
+    // Moves every booking in bookingIds whose current status is in fromStatusIds to statusId,
+    // in a single UPDATE. Returns one row per booking that exists; missing ids are absent.
+    List<BookingStatusChange> changeStatus(Collection<Long> bookingIds, Long statusId,
+                                           Collection<Long> fromStatusIds);
+}
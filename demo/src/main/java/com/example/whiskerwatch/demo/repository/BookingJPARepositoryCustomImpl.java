@@ -0,0 +1,162 @@
+package com.example.whiskerwatch.demo.repository;
+
+import com.example.whiskerwatch.demo.controller.response.BookingResponse;
+import com.example.whiskerwatch.demo.model.Booking;
+import com.example.whiskerwatch.demo.model.BookingStatus;
+import com.example.whiskerwatch.demo.model.Pet;
+import com.example.whiskerwatch.demo.model.PetType;
+import com.example.whiskerwatch.demo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BookingJPARepositoryCustomImpl implements BookingJPARepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The CTE's UPDATE and the outer SELECT run as one statement. The SELECT reads the snapshot
+    // taken before the update, so previous_status_id is the status each booking had when asked.
+    private static final String CHANGE_STATUS_SQL =
+            "WITH changed AS (" +
+            "UPDATE bookings SET status_id = :statusId, updated_at = :now " +
+            "WHERE id IN (:bookingIds) AND %s RETURNING id) " +
+            "SELECT b.id AS booking_id, b.sitter_id, b.booking_date, b.status_id AS previous_status_id, " +
+            "c.id IS NOT NULL AS updated " +
+            "FROM bookings b LEFT JOIN changed c ON c.id = b.id " +
+            "WHERE b.id IN (:bookingIds)";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BookingStatusChange> changeStatus(Collection<Long> bookingIds, Long statusId,
+                                                  Collection<Long> fromStatusIds) {
+        // IN () is not valid SQL; a status nothing may move to simply updates no rows
+        boolean anySource = !fromStatusIds.isEmpty();
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(
+                        CHANGE_STATUS_SQL.formatted(anySource ? "status_id IN (:fromStatusIds)" : "FALSE"))
+                .unwrap(NativeQuery.class)
+                .addScalar("booking_id", Long.class)
+                .addScalar("sitter_id", Long.class)
+                .addScalar("booking_date", LocalDate.class)
+                .addScalar("previous_status_id", Long.class)
+                .addScalar("updated", Boolean.class)
+                .addSynchronizedEntityClass(Booking.class)
+                .setParameter("statusId", statusId)
+                .setParameter("now", LocalDateTime.now())
+                .setParameterList("bookingIds", bookingIds);
+        if (anySource) {
+            query.setParameterList("fromStatusIds", fromStatusIds);
+        }
+
+        return query.getResultList().stream()
+                .map(row -> new BookingStatusChange((Long) row[0], (Long) row[1], (LocalDate) row[2],
+                        (Long) row[3], (Boolean) row[4]))
+                .toList();
+    }
+
+    @Override
+    public List<BookingResponse> search(BookingSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponse> query = cb.createQuery(BookingResponse.class);
+        Root<Booking> b = query.from(Booking.class);
+        Join<Booking, BookingStatus> status = b.join("status");
+        Join<Booking, Pet> pet = b.join("pet");
+        Join<Pet, PetType> type = pet.join("type");
+        Join<Booking, User> owner = b.join("owner");
+        Join<Booking, User> sitter = b.join("sitter", JoinType.LEFT);
+
+        // Same columns, in the same order, as BookingJPARepository.BOOKING_RESPONSE_SELECT
+        query.select(cb.construct(BookingResponse.class,
+                b.get("id"), b.get("bookingDate"), b.get("startTime"), b.get("endTime"),
+                status.get("statusName"), b.get("totalCost"), b.get("specialRequests"),
+                b.get("createdAt"), b.get("updatedAt"),
+                pet.get("id"), pet.get("name"), type.get("typeName"),
+                owner.get("id"), fullName(cb, owner), owner.get("email"),
+                sitter.get("id"), fullName(cb, sitter), sitter.get("email")));
+
+        // Filter on the foreign key columns themselves so the composite indexes apply
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getOwnerId() != null) {
+            predicates.add(cb.equal(b.get("owner").get("id"), criteria.getOwnerId()));
+        }
+        if (criteria.getSitterId() != null) {
+            predicates.add(cb.equal(b.get("sitter").get("id"), criteria.getSitterId()));
+        }
+        if (criteria.getPetId() != null) {
+            predicates.add(cb.equal(b.get("pet").get("id"), criteria.getPetId()));
+        }
+        if (criteria.getStatusId() != null) {
+            predicates.add(cb.equal(b.get("statusId"), criteria.getStatusId()));
+        }
+
+        Path<LocalDate> date = b.get("bookingDate");
+        Path<LocalTime> startTime = b.get("startTime");
+        Path<Long> id = b.get("id");
+        if (criteria.getFromDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(date, criteria.getFromDate()));
+        }
+        if (criteria.getToDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(date, criteria.getToDate()));
+        }
+        if (criteria.hasCursor()) {
+            predicates.add(afterCursor(cb, date, startTime, id, criteria));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        if (criteria.isDescending()) {
+            query.orderBy(cb.desc(date), cb.desc(startTime), cb.desc(id));
+        } else {
+            query.orderBy(cb.asc(date), cb.asc(startTime), cb.asc(id));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // (date, startTime, id) strictly after the cursor in the requested direction, expanded
+    // because the Criteria API has no row-value comparison. The leading bound on date alone
+    // lets PostgreSQL start the index range scan at the cursor.
+    private static Predicate afterCursor(CriteriaBuilder cb, Path<LocalDate> date, Path<LocalTime> startTime,
+                                         Path<Long> id, BookingSearchCriteria criteria) {
+        LocalDate afterDate = criteria.getAfterDate();
+        LocalTime afterTime = criteria.getAfterTime();
+        Long afterId = criteria.getAfterId();
+
+        if (criteria.isDescending()) {
+            return cb.and(
+                    cb.lessThanOrEqualTo(date, afterDate),
+                    cb.or(
+                            cb.lessThan(date, afterDate),
+                            cb.and(cb.equal(date, afterDate), cb.or(
+                                    cb.lessThan(startTime, afterTime),
+                                    cb.and(cb.equal(startTime, afterTime), cb.lessThan(id, afterId))))));
+        }
+        return cb.and(
+                cb.greaterThanOrEqualTo(date, afterDate),
+                cb.or(
+                        cb.greaterThan(date, afterDate),
+                        cb.and(cb.equal(date, afterDate), cb.or(
+                                cb.greaterThan(startTime, afterTime),
+                                cb.and(cb.equal(startTime, afterTime), cb.greaterThan(id, afterId))))));
+    }
+
+    private static Expression<String> fullName(CriteriaBuilder cb, Join<Booking, User> user) {
+        return cb.concat(cb.concat(user.<String>get("firstName"), " "), user.<String>get("lastName"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.whiskerwatch.demo.repository;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Filters for BookingJPARepositoryCustom.search. Every field is optional and only the
+// ones that are set become predicates. Results are ordered by (bookingDate, startTime, id),
+// ascending unless descending is set; the after* fields are the keyset cursor of the previous page.
+@Value
+@Builder
+public class BookingSearchCriteria {
+    Long ownerId;
+    Long sitterId;
+    Long petId;
+    Long statusId;
+    LocalDate fromDate;
+    LocalDate toDate;
+    boolean descending;
+
+    LocalDate afterDate;
+    LocalTime afterTime;
+    Long afterId;
+
+    public boolean hasCursor() {
+        return afterDate != null && afterTime != null && afterId != null;
+    }
+}
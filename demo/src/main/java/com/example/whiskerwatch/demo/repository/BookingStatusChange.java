@@ -0,0 +1,9 @@
+package com.example.whiskerwatch.demo.repository;
+
+import java.time.LocalDate;
+
+// One requested booking after a set-based status change: its status before the statement,
+// and whether the statement changed it
+public record BookingStatusChange(Long bookingId, Long sitterId, LocalDate bookingDate,
+                                  Long previousStatusId, boolean updated) {
+}
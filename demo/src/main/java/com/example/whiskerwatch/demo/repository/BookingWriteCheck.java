@@ -0,0 +1,22 @@
+package com.example.whiskerwatch.demo.repository;
+
+// Everything a booking write needs to know before its INSERT/UPDATE, fetched in one query
+// (see BookingJPARepository.checkBookingWrite). Null ids mean the row does not exist.
+public interface BookingWriteCheck {
+    Long getPetOwnerId();
+    String getPetName();
+    String getPetTypeName();
+
+    Long getOwnerId();
+    String getOwnerFirstName();
+    String getOwnerLastName();
+    String getOwnerEmail();
+
+    Long getSitterId();
+    String getSitterFirstName();
+    String getSitterLastName();
+    String getSitterEmail();
+
+    Boolean getSitterConflict();
+    Boolean getPetConflict();
+}
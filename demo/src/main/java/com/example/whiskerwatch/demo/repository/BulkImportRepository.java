@@ -0,0 +1,229 @@
+package com.example.whiskerwatch.demo.repository;
+
+import com.example.whiskerwatch.demo.controller.response.ImportReport.RowError;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Array;
+import java.util.Collection;
+import java.util.List;
+
+// JDBC side of the CSV import. Rows are COPY'd into a temporary staging table, checked
+// against the live tables with a handful of set-based queries, and moved across with one
+// INSERT ... SELECT. Every method must run inside the caller's transaction: the staging
+// tables are dropped on commit.
+@Repository
+public class BulkImportRepository {
+
+    // Must match allocationSize on User, Pet and Booking: each nextval hands out a block
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // Lines whose owner, pet and sitter all resolved; only these are checked for overlaps
+    // and only these can block a later line of the same file
+    private static final String RESOLVED_LINE = "%1$s.owner_id IS NOT NULL AND %1$s.pet_id IS NOT NULL " +
+            "AND (%1$s.sitter_email IS NULL OR %1$s.sitter_id IS NOT NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int copyChunkSize;
+
+    public BulkImportRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${import.copy-chunk-size:5000}") int copyChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyChunkSize = copyChunkSize;
+    }
+
+    // ==================== USERS ====================
+
+    public void stageUsers(List<Object[]> rows) {
+        jdbcTemplate.execute("CREATE TEMP TABLE import_users (" +
+                "line_no BIGINT PRIMARY KEY, id BIGINT NOT NULL, username VARCHAR(50), email VARCHAR(100), " +
+                "password VARCHAR(255), customer_type_id BIGINT, first_name VARCHAR(255), last_name VARCHAR(255), " +
+                "phone_number VARCHAR(20), address TEXT) ON COMMIT DROP");
+        copy("import_users", "line_no, id, username, email, password, customer_type_id, first_name, last_name, " +
+                "phone_number, address", rows);
+    }
+
+    public List<RowError> findUserConflicts() {
+        return rowErrors(
+                "SELECT s.line_no, 'Username already exists: ' || s.username FROM import_users s " +
+                "WHERE EXISTS (SELECT 1 FROM users u WHERE u.username = s.username) " +
+                "UNION ALL SELECT s.line_no, 'Email already exists: ' || s.email FROM import_users s " +
+                "WHERE EXISTS (SELECT 1 FROM users u WHERE u.email = s.email) " +
+                "UNION ALL SELECT s.line_no, 'Phone number already exists: ' || s.phone_number FROM import_users s " +
+                "WHERE EXISTS (SELECT 1 FROM users u WHERE u.phone_number = s.phone_number)");
+    }
+
+    public int insertUsers(long roleId) {
+        return jdbcTemplate.update("INSERT INTO users (id, username, email, password, role_id, customer_type_id, " +
+                "first_name, last_name, phone_number, address, is_active) " +
+                "SELECT id, username, email, password, ?, customer_type_id, first_name, last_name, phone_number, " +
+                "address, TRUE FROM import_users", roleId);
+    }
+
+    // ==================== PETS ====================
+
+    public void stagePets(List<Object[]> rows) {
+        jdbcTemplate.execute("CREATE TEMP TABLE import_pets (" +
+                "line_no BIGINT PRIMARY KEY, id BIGINT NOT NULL, owner_email VARCHAR(100), name VARCHAR(100), " +
+                "type_id BIGINT, age INTEGER, breed VARCHAR(100), weight DECIMAL(5,2), special_instructions TEXT, " +
+                "owner_id BIGINT) ON COMMIT DROP");
+        copy("import_pets", "line_no, id, owner_email, name, type_id, age, breed, weight, special_instructions", rows);
+        jdbcTemplate.update("UPDATE import_pets s SET owner_id = u.id FROM users u WHERE u.email = s.owner_email");
+    }
+
+    public List<RowError> findPetConflicts() {
+        return rowErrors("SELECT line_no, 'Owner not found: ' || owner_email FROM import_pets WHERE owner_id IS NULL");
+    }
+
+    public int insertPets() {
+        return jdbcTemplate.update("INSERT INTO pets (id, name, age, breed, weight, special_instructions, " +
+                "is_active, owner_id, type_id) " +
+                "SELECT id, name, age, breed, weight, special_instructions, TRUE, owner_id, type_id FROM import_pets");
+    }
+
+    // ==================== BOOKINGS ====================
+
+    public void stageBookings(List<Object[]> rows, long sitterTypeId) {
+        jdbcTemplate.execute("CREATE TEMP TABLE import_bookings (" +
+                "line_no BIGINT PRIMARY KEY, id BIGINT NOT NULL, owner_email VARCHAR(100), pet_name VARCHAR(100), " +
+                "sitter_email VARCHAR(100), booking_date DATE, start_time TIME, end_time TIME, status_id BIGINT, " +
+                "total_cost DECIMAL(10,2), special_requests TEXT, " +
+                "owner_id BIGINT, pet_id BIGINT, sitter_id BIGINT) ON COMMIT DROP");
+        copy("import_bookings", "line_no, id, owner_email, pet_name, sitter_email, booking_date, start_time, " +
+                "end_time, status_id, total_cost, special_requests", rows);
+
+        jdbcTemplate.update("UPDATE import_bookings s SET owner_id = u.id FROM users u WHERE u.email = s.owner_email");
+        jdbcTemplate.update("UPDATE import_bookings s SET sitter_id = u.id FROM users u " +
+                "WHERE u.email = s.sitter_email AND u.customer_type_id = ?", sitterTypeId);
+        // Pets are identified by owner and name; a name the owner uses twice stays unresolved
+        jdbcTemplate.update("UPDATE import_bookings s SET pet_id = p.id FROM pets p " +
+                "WHERE p.owner_id = s.owner_id AND p.name = s.pet_name " +
+                "AND NOT EXISTS (SELECT 1 FROM pets d WHERE d.owner_id = p.owner_id AND d.name = p.name AND d.id <> p.id)");
+        jdbcTemplate.execute("CREATE INDEX ON import_bookings (sitter_id, booking_date)");
+        jdbcTemplate.execute("CREATE INDEX ON import_bookings (pet_id, booking_date)");
+        jdbcTemplate.execute("ANALYZE import_bookings");
+    }
+
+    // Takes the all-schedules advisory key (0, 0) exclusively. Every single-booking write holds
+    // it in shared mode (BookingJPARepository.lockSitterAndPetSchedules), so none can slip an
+    // overlapping booking in between findBookingConflicts and the insert. One lock however many
+    // sitters and pets the file touches, so a large import stays within the shared lock table.
+    public void lockAllSchedules() {
+        jdbcTemplate.queryForObject("SELECT 1 FROM (SELECT pg_advisory_xact_lock(0, 0)) AS l", Integer.class);
+    }
+
+    // Overlaps use the same rule as BookingService: inclusive endpoints, inactive statuses ignored,
+    // for the sitter and for the pet, checked against stored bookings and against earlier lines
+    // of the same file. Run after lockAllSchedules.
+    public List<RowError> findBookingConflicts(Collection<Long> inactiveStatusIds) {
+        Long[] inactive = inactiveStatusIds.toArray(Long[]::new);
+        return jdbcTemplate.execute((ConnectionCallback<List<RowError>>) connection -> {
+            Array inactiveArray = connection.createArrayOf("bigint", inactive);
+            return jdbcTemplate.query(
+                    "SELECT line_no, 'Owner not found: ' || owner_email FROM import_bookings WHERE owner_id IS NULL " +
+                    "UNION ALL SELECT line_no, 'Pet not found (or name not unique) for owner: ' || pet_name " +
+                    "FROM import_bookings WHERE owner_id IS NOT NULL AND pet_id IS NULL " +
+                    "UNION ALL SELECT line_no, 'Sitter not found: ' || sitter_email FROM import_bookings " +
+                    "WHERE sitter_email IS NOT NULL AND sitter_id IS NULL " +
+                    "UNION ALL SELECT s.line_no, 'Sitter already has a booking that overlaps this time slot' " +
+                    "FROM import_bookings s WHERE s.sitter_id IS NOT NULL AND s.status_id <> ALL (?) " +
+                    "AND " + RESOLVED_LINE.formatted("s") + " AND (" +
+                    "EXISTS (SELECT 1 FROM bookings b WHERE b.sitter_id = s.sitter_id " +
+                    "AND b.booking_date = s.booking_date AND b.start_time <= s.end_time AND b.end_time >= s.start_time " +
+                    "AND b.status_id <> ALL (?)) " +
+                    "OR EXISTS (SELECT 1 FROM import_bookings o WHERE o.sitter_id = s.sitter_id " +
+                    "AND o.booking_date = s.booking_date AND o.line_no < s.line_no " +
+                    "AND o.start_time <= s.end_time AND o.end_time >= s.start_time AND o.status_id <> ALL (?) " +
+                    "AND " + RESOLVED_LINE.formatted("o") + ")) " +
+                    "UNION ALL SELECT s.line_no, 'Pet already has a booking that overlaps this time slot' " +
+                    "FROM import_bookings s WHERE s.status_id <> ALL (?) " +
+                    "AND " + RESOLVED_LINE.formatted("s") + " AND (" +
+                    "EXISTS (SELECT 1 FROM bookings b WHERE b.pet_id = s.pet_id " +
+                    "AND b.booking_date = s.booking_date AND b.start_time <= s.end_time AND b.end_time >= s.start_time " +
+                    "AND b.status_id <> ALL (?)) " +
+                    "OR EXISTS (SELECT 1 FROM import_bookings o WHERE o.pet_id = s.pet_id " +
+                    "AND o.booking_date = s.booking_date AND o.line_no < s.line_no " +
+                    "AND o.start_time <= s.end_time AND o.end_time >= s.start_time AND o.status_id <> ALL (?) " +
+                    "AND " + RESOLVED_LINE.formatted("o") + "))",
+                    (rs, rowNum) -> new RowError(rs.getLong(1), rs.getString(2)),
+                    inactiveArray, inactiveArray, inactiveArray, inactiveArray, inactiveArray, inactiveArray);
+        });
+    }
+
+    public int insertBookings() {
+        return jdbcTemplate.update("INSERT INTO bookings (id, booking_date, start_time, end_time, status_id, " +
+                "total_cost, special_requests, pet_id, owner_id, sitter_id) " +
+                "SELECT id, booking_date, start_time, end_time, status_id, total_cost, special_requests, " +
+                "pet_id, owner_id, sitter_id FROM import_bookings");
+    }
+
+    // ==================== SHARED ====================
+
+    public void discardStaged(String stagingTable, Collection<Long> lineNumbers) {
+        if (lineNumbers.isEmpty()) {
+            return;
+        }
+        Long[] lines = lineNumbers.toArray(Long[]::new);
+        jdbcTemplate.execute((ConnectionCallback<Integer>) connection ->
+                jdbcTemplate.update("DELETE FROM " + stagingTable + " WHERE line_no = ANY (?)",
+                        connection.createArrayOf("bigint", lines)));
+    }
+
+    // Reserves ids the way Hibernate's pooled optimizer does, so imported rows and
+    // application inserts draw from the same sequence without colliding
+    public long[] allocateIds(String sequence, int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = highs.get(i / ID_BLOCK_SIZE) - ID_BLOCK_SIZE + 1 + i % ID_BLOCK_SIZE;
+        }
+        return ids;
+    }
+
+    private List<RowError> rowErrors(String sql) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new RowError(rs.getLong(1), rs.getString(2)));
+    }
+
+    // COPY ... FROM STDIN in CSV format, copyChunkSize rows per round trip. Every non-null
+    // value is quoted, so an empty string and NULL stay distinct.
+    private void copy(String table, String columns, List<Object[]> rows) {
+        String sql = "COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)";
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            StringBuilder chunk = new StringBuilder();
+            try {
+                for (int start = 0; start < rows.size(); start += copyChunkSize) {
+                    chunk.setLength(0);
+                    for (Object[] row : rows.subList(start, Math.min(rows.size(), start + copyChunkSize))) {
+                        appendCsvLine(chunk, row);
+                    }
+                    copyManager.copyIn(sql, new StringReader(chunk.toString()));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("COPY into " + table + " failed", e);
+            }
+            return null;
+        });
+    }
+
+    private static void appendCsvLine(StringBuilder out, Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = row[i];
+            if (value != null) {
+                out.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        out.append('\n');
+    }
+}
@@ -1,13 +1,39 @@
 package com.example.whiskerwatch.demo.repository;
 
+import com.example.whiskerwatch.demo.controller.response.PetResponse;
 import com.example.whiskerwatch.demo.model.Pet;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface PetJPARepository extends JpaRepository<Pet, Long> {
+    // Read-only projection straight into PetResponse; the booking count is a subquery
+    // rather than an initialized collection
+    String PET_RESPONSE_SELECT = "SELECT new com.example.whiskerwatch.demo.controller.response.PetResponse(" +
+            "p.id, p.name, p.age, p.breed, p.weight, p.specialInstructions, p.isActive, p.createdAt, " +
+            "CONCAT(o.firstName, ' ', o.lastName), o.email, t.typeName, SIZE(p.bookings)) " +
+            "FROM Pet p JOIN p.owner o JOIN p.type t ";
+
+    @Query(PET_RESPONSE_SELECT + "WHERE p.id = :petId")
+    Optional<PetResponse> findResponseById(@Param("petId") Long petId);
+
+    // Keyset pagination on id; the first page passes afterId = 0
+    @Query(PET_RESPONSE_SELECT + "WHERE o.id = :ownerId AND p.id > :afterId ORDER BY p.id")
+    List<PetResponse> findResponsesByOwnerId(@Param("ownerId") Long ownerId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(PET_RESPONSE_SELECT + "WHERE t.typeName = :typeName AND p.id > :afterId ORDER BY p.id")
+    List<PetResponse> findResponsesByTypeName(@Param("typeName") String typeName, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(PET_RESPONSE_SELECT + "WHERE p.isActive = :isActive AND p.id > :afterId ORDER BY p.id")
+    List<PetResponse> findResponsesByIsActive(@Param("isActive") Boolean isActive, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(PET_RESPONSE_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<PetResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
     // Find pets by owner ID
     List<Pet> findByOwnerId(Long ownerId);
 
@@ -37,6 +63,9 @@ public interface PetJPARepository extends JpaRepository<Pet, Long> {
     @Query("SELECT p FROM Pet p WHERE p.owner.firstName LIKE %:firstName% AND p.owner.lastName LIKE %:lastName%")
     List<Pet> findByOwnerName(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
+    @Query("SELECT new com.example.whiskerwatch.demo.repository.ActiveCount(p.isActive, COUNT(p)) FROM Pet p GROUP BY p.isActive")
+    List<ActiveCount> countByActive();
+
     // Count pets by owner
     long countByOwnerId(Long ownerId);
 
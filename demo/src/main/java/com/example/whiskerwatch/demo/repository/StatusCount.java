@@ -0,0 +1,5 @@
+package com.example.whiskerwatch.demo.repository;
+
+// Number of bookings with one status_id
+public record StatusCount(Long statusId, long count) {
+}
@@ -0,0 +1,7 @@
+package com.example.whiskerwatch.demo.repository;
+
+import java.time.LocalTime;
+
+// Start and end of a booked slot, without the rest of the booking
+public record TimeSlot(LocalTime startTime, LocalTime endTime) {
+}
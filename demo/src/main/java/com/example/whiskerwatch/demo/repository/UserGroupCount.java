@@ -0,0 +1,5 @@
+package com.example.whiskerwatch.demo.repository;
+
+// Number of users sharing one role, customer type (null for admins) and active flag
+public record UserGroupCount(String roleName, String typeName, Boolean isActive, long count) {
+}
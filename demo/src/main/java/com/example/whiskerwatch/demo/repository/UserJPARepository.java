@@ -1,21 +1,85 @@
 package com.example.whiskerwatch.demo.repository;
 
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.example.whiskerwatch.demo.controller.response.UserResponse;
+import com.example.whiskerwatch.demo.model.BookingState;
 import com.example.whiskerwatch.demo.model.User;
 
 public interface UserJPARepository extends JpaRepository<User, Long> {
+    String USERS_BY_EMAIL_REGION = "users-by-email";
+
+    // Read-only projection straight into UserResponse: the password hash is never read and
+    // the collection counts are subqueries rather than initialized collections
+    String USER_RESPONSE_SELECT = "SELECT new com.example.whiskerwatch.demo.controller.response.UserResponse(" +
+            "u.id, u.username, u.email, r.roleName, ct.typeName, u.firstName, u.lastName, " +
+            "u.phoneNumber, u.address, u.isActive, u.createdAt, u.updatedAt, " +
+            "SIZE(u.ownedPets), SIZE(u.ownerBookings), SIZE(u.sitterBookings)) " +
+            "FROM User u JOIN u.role r LEFT JOIN u.customerType ct ";
+
+    @Query(USER_RESPONSE_SELECT + "WHERE u.id = :userId")
+    Optional<UserResponse> findResponseById(@Param("userId") Long userId);
+
+    // Keyset pagination on id; the first page passes afterId = 0
+    @Query(USER_RESPONSE_SELECT + "WHERE u.email LIKE CONCAT('%', :email, '%') AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findResponsesByEmailContaining(@Param("email") String email, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(USER_RESPONSE_SELECT + "WHERE ct.typeName = :typeName AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findResponsesByCustomerTypeName(@Param("typeName") String typeName, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(USER_RESPONSE_SELECT + "WHERE u.isActive = :isActive AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findResponsesByIsActive(@Param("isActive") Boolean isActive, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(USER_RESPONSE_SELECT + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Sitters with no booking overlapping the window, as one anti-join. Overlap and the
+    // ignored statuses match SitterScheduleIndex.
+    String FREE_SITTER_CONDITION = "ct.typeName = 'SITTER' AND NOT EXISTS (" +
+            "SELECT 1 FROM Booking b WHERE b.sitter = u AND b.bookingDate = :date " +
+            "AND b.startTime <= :endTime AND b.endTime >= :startTime " +
+            "AND b.statusId NOT IN (" + BookingState.INACTIVE_IDS + ")) ";
+
+    @Query(USER_RESPONSE_SELECT + "WHERE " + FREE_SITTER_CONDITION + "ORDER BY u.id")
+    List<UserResponse> findAvailableSitters(@Param("date") LocalDate date,
+                                            @Param("startTime") LocalTime startTime,
+                                            @Param("endTime") LocalTime endTime);
+
+    @Query(USER_RESPONSE_SELECT + "WHERE u.id IN :sitterIds AND " + FREE_SITTER_CONDITION + "ORDER BY u.id")
+    List<UserResponse> findAvailableSittersByIdIn(@Param("sitterIds") Collection<Long> sitterIds,
+                                                  @Param("date") LocalDate date,
+                                                  @Param("startTime") LocalTime startTime,
+                                                  @Param("endTime") LocalTime endTime);
+
+    // A handful of rows covering every user, for the admin stats
+    @Query("SELECT new com.example.whiskerwatch.demo.repository.UserGroupCount(r.roleName, ct.typeName, u.isActive, COUNT(u)) " +
+            "FROM User u JOIN u.role r LEFT JOIN u.customerType ct GROUP BY r.roleName, ct.typeName, u.isActive")
+    List<UserGroupCount> countByGroup();
+
     // Find by username
     Optional<User> findByUsername(String username);
 
-    // Find by email
+    // Find by email. Login and the principal cache hit this constantly, so the id it resolves
+    // to is kept in the query cache (and the User itself in the entity cache).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = USERS_BY_EMAIL_REGION)
+    })
     Optional<User> findByEmail(String email);
 
     // Find users by email containing (for search functionality)
@@ -6,67 +6,92 @@ import com.example.whiskerwatch.demo.repository.UserJPARepository;
  
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserJPARepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public CustomUserDetailsService(UserJPARepository userRepository) {
+    public CustomUserDetailsService(UserJPARepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
+    // No transaction here: cache hits must not borrow a connection, and the principal
+    // copies everything it needs (role and customer type are EAGER) before returning.
     @Override
-    @Transactional(readOnly = true) // Spring's annotation
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        CustomUserPrincipal cached = principalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
+        CustomUserPrincipal principal = new CustomUserPrincipal(user);
+        principalCache.put(email, principal);
+        return principal;
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login when the stored hash
+    // was produced with a different BCrypt cost than the one currently configured
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+
+        user.setPassword(newEncodedPassword);
+        userRepository.save(user);
+        principalCache.evict(user.getEmail());
+
         return new CustomUserPrincipal(user);
     }
-    // Custom UserDetails implementation
-    public static class CustomUserPrincipal implements UserDetails {
-        private final User user;
+    // Custom UserDetails implementation. Holds a detached snapshot of the user rather than
+    // the entity, so it can be cached and shared across requests safely.
+    public static class CustomUserPrincipal implements UserPrincipal {
+        private final Long userId;
+        private final String email;
+        private final String password;
+        private final String role;
+        private final String customerType;
+        private final boolean enabled;
+        private final List<GrantedAuthority> authorities;
 
         public CustomUserPrincipal(User user) {
-            this.user = user;
+            this.userId = user.getId();
+            this.email = user.getEmail(); // Using email as username
+            this.password = user.getPassword();
+            this.role = user.getRole() != null ? user.getRole().getRoleName() : null;
+            this.customerType = user.getCustomerType() != null ? user.getCustomerType().getTypeName() : null;
+            this.enabled = user.getIsActive() != null ? user.getIsActive() : true;
+            this.authorities = UserPrincipal.authoritiesFor(role, customerType);
         }
 
         @Override
         public Collection<? extends GrantedAuthority> getAuthorities() {
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            
-            // Add role-based authority
-            if (user.getRole() != null) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName()));
-            }
-            
-            // Add customer type-based authority if exists
-            if (user.getCustomerType() != null) {
-                authorities.add(new SimpleGrantedAuthority("TYPE_" + user.getCustomerType().getTypeName()));
-            }
-            
             return authorities;
         }
 
         @Override
         public String getPassword() {
-            return user.getPassword();
+            return password;
         }
 
         @Override
         public String getUsername() {
-            return user.getEmail(); // Using email as username
+            return email;
         }
 
         @Override
@@ -86,24 +111,22 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         @Override
         public boolean isEnabled() {
-            return user.getIsActive() != null ? user.getIsActive() : true;
-        }
-
-        // Getter for the User entity
-        public User getUser() {
-            return user;
+            return enabled;
         }
 
+        @Override
         public Long getUserId() {
-            return user.getId();
+            return userId;
         }
 
+        @Override
         public String getRole() {
-            return user.getRole() != null ? user.getRole().getRoleName() : null;
+            return role;
         }
 
+        @Override
         public String getCustomerType() {
-            return user.getCustomerType() != null ? user.getCustomerType().getTypeName() : null;
+            return customerType;
         }
     }
-}
\ No newline at end of file
+}
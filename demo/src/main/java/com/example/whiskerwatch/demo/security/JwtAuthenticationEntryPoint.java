@@ -1,35 +1,30 @@
 package com.example.whiskerwatch.demo.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.whiskerwatch.demo.exception.ErrorCode;
+import com.example.whiskerwatch.demo.exception.ErrorResponses;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
+// Every unauthenticated request to a protected endpoint ends here, so the body is written
+// from pre-serialized bytes with only the request path appended.
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private final ErrorResponses errorResponses;
+
+    public JwtAuthenticationEntryPoint(ErrorResponses errorResponses) {
+        this.errorResponses = errorResponses;
+    }
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
-        
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-
-        final Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-        body.put("error", "Unauthorized");
-        body.put("message", "Authentication required to access this resource");
-        body.put("path", request.getRequestURI());
-
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+        errorResponses.write(response, ErrorCode.UNAUTHORIZED, request.getRequestURI());
     }
-}
\ No newline at end of file
+}
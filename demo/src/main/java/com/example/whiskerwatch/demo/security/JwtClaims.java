@@ -0,0 +1,46 @@
+package com.example.whiskerwatch.demo.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+
+import java.util.Date;
+
+// Immutable view of a token that has already passed signature and expiry checks.
+// Built once per request by JwtUtil.verify and carried on the request as an attribute.
+@Value
+public class JwtClaims {
+
+    public static final String REQUEST_ATTRIBUTE = JwtClaims.class.getName();
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
+    String tokenId;
+    String subject;
+    Long userId;
+    String role;
+    String customerType;
+    Date issuedAt;
+    Date expiration;
+
+    public static JwtClaims from(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        // Tokens issued before the millisecond claim existed fall back to the whole-second iat
+        Number issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Number.class);
+        return new JwtClaims(
+                claims.getId(),
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                claims.get("role", String.class),
+                claims.get("customerType", String.class),
+                issuedAtMillis != null ? new Date(issuedAtMillis.longValue()) : claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+    }
+
+    public JwtClaims withIdentity(Long userId, String role, String customerType) {
+        return new JwtClaims(tokenId, subject, userId, role, customerType, issuedAt, expiration);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.whiskerwatch.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+// Lightweight principal rebuilt from verified token claims, so authenticated requests
+// do not need a database round trip. Endpoints that need the User entity load it by userId.
+public class JwtUserPrincipal implements UserPrincipal {
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final String customerType;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(Long userId, String email, String role, String customerType) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.customerType = customerType;
+        this.authorities = UserPrincipal.authoritiesFor(role, customerType);
+    }
+
+    public static JwtUserPrincipal from(JwtClaims claims) {
+        return new JwtUserPrincipal(claims.getUserId(), claims.getSubject(),
+                claims.getRole(), claims.getCustomerType());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null; // never needed after the token has been verified
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String getCustomerType() {
+        return customerType;
+    }
+}
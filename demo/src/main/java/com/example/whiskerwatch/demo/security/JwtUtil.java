@@ -2,6 +2,7 @@ package com.example.whiskerwatch.demo.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -10,6 +11,8 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -22,8 +25,48 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
+    // Built once at startup; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationService revocationService;
+
+    public JwtUtil(VerifiedTokenCache tokenCache, TokenRevocationService revocationService) {
+        this.tokenCache = tokenCache;
+        this.revocationService = revocationService;
+    }
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
+    }
+
+    // Verify signature and expiry in a single parse. Callers should keep the
+    // returned claims for the rest of the request instead of re-parsing the token.
+    // Tokens seen before are answered from the cache until their exp passes.
+    // Revocation is checked on every call, including cache hits.
+    public Optional<JwtClaims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        JwtClaims claims = tokenCache.get(token);
+        if (claims == null) {
+            try {
+                claims = JwtClaims.from(parser.parseSignedClaims(token).getPayload());
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            tokenCache.put(token, claims);
+        }
+        return revocationService.isRevoked(claims) ? Optional.empty() : Optional.of(claims);
     }
 
     // Extract username from token
@@ -45,9 +88,7 @@ public class JwtUtil {
     // Extract all claims from token
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return parser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (ExpiredJwtException e) {
@@ -63,17 +104,25 @@ public class JwtUtil {
         }
     }
 
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     // Generate token for user
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userDetails.getUsername());
     }
 
+    // Generate token carrying the claims the stateless principal is rebuilt from
+    public String generateToken(UserPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", principal.getUserId());
+        claims.put("role", principal.getRole());
+        claims.put("customerType", principal.getCustomerType());
+        return createToken(claims, principal.getUsername());
+    }
+
+    public long getExpirationSeconds() {
+        return expiration / 1000;
+    }
+
     // Generate token with custom claims
     public String generateToken(UserDetails userDetails, Map<String, Object> extraClaims) {
         Map<String, Object> claims = new HashMap<>(extraClaims);
@@ -81,33 +130,37 @@ public class JwtUtil {
     }
 
     // Create JWT token
+    // iat only has second precision; the millisecond copy lets revocation tell apart a token
+    // issued just before a password change from one issued just after it
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claims(claims)
+                .claim(JwtClaims.ISSUED_AT_MILLIS_CLAIM, now)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
                 .signWith(getSigningKey())
                 .compact();
     }
 
     // Validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token)
+                .map(claims -> validateClaims(claims, userDetails))
+                .orElse(false);
+    }
+
+    // Validate already verified claims against the loaded user
+    public boolean validateClaims(JwtClaims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !claims.isExpired();
     }
 
     // Validate token without UserDetails
     public Boolean validateToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.example.whiskerwatch.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Rejects login attempts cheaply, before any BCrypt work, when one email or one client IP
+// is attempting too often. Each key is a token bucket stored as a single AtomicLong
+// ("theoretical arrival time", the GCRA formulation), so checks are a CAS with no locks.
+// A bucket whose arrival time has passed is equivalent to a full one, so those are swept
+// on a fixed interval and memory only holds keys that were active recently.
+@Component
+public class LoginThrottler {
+
+    private static final class Limit {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        private Limit(long intervalMillis, int burst) {
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            this.burstNanos = this.intervalNanos * burst;
+        }
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> emailBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+    private final Limit emailLimit;
+    private final Limit ipLimit;
+    // Shared by every key that arrives while its table is full
+    private final Limit overflowLimit;
+    private final AtomicLong overflowBucket = new AtomicLong(System.nanoTime());
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final AtomicLong nextSweep;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    public LoginThrottler(@Value("${auth.login-throttle.email.burst:5}") int emailBurst,
+                          @Value("${auth.login-throttle.email.interval:12000}") long emailIntervalMillis,
+                          @Value("${auth.login-throttle.ip.burst:20}") int ipBurst,
+                          @Value("${auth.login-throttle.ip.interval:3000}") long ipIntervalMillis,
+                          @Value("${auth.login-throttle.overflow.burst:20}") int overflowBurst,
+                          @Value("${auth.login-throttle.overflow.interval:200}") long overflowIntervalMillis,
+                          @Value("${auth.login-throttle.max-keys:100000}") int maxKeys,
+                          @Value("${auth.login-throttle.sweep-interval:60000}") long sweepIntervalMillis) {
+        this.emailLimit = new Limit(emailIntervalMillis, emailBurst);
+        this.ipLimit = new Limit(ipIntervalMillis, ipBurst);
+        this.overflowLimit = new Limit(overflowIntervalMillis, overflowBurst);
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sweepIntervalMillis);
+        this.nextSweep = new AtomicLong(System.nanoTime() + sweepIntervalNanos);
+    }
+
+    // Returns 0 when the attempt may proceed, otherwise the number of seconds to wait
+    public long tryAcquire(String email, String clientIp) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        long wait = take(ipBuckets, clientIp != null ? clientIp : "unknown", ipLimit, now);
+        if (wait == 0 && email != null) {
+            wait = take(emailBuckets, email.trim().toLowerCase(Locale.ROOT), emailLimit, now);
+        }
+
+        if (wait == 0) {
+            allowed.increment();
+            return 0;
+        }
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait));
+    }
+
+    public void recordFailure() {
+        failed.increment();
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "allowed", allowed.sum(),
+                "throttled", throttled.sum(),
+                "failed", failed.sum(),
+                "untracked", untracked.sum(),
+                "trackedEmails", emailBuckets.size(),
+                "trackedIps", ipBuckets.size()
+        );
+    }
+
+    private long take(ConcurrentHashMap<String, AtomicLong> buckets, String key, Limit limit, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // Under a wide spray of keys, stop tracking new ones rather than grow without bound.
+            // They all draw from one overflow bucket instead: the spray stays rate limited as a
+            // whole, while a legitimate login among it is only slowed, not locked out.
+            // Room comes back with the next scheduled sweep.
+            if (buckets.size() >= maxKeys) {
+                untracked.increment();
+                return take(overflowBucket, overflowLimit, now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        return take(bucket, limit, now);
+    }
+
+    private static long take(AtomicLong bucket, Limit limit, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + limit.intervalNanos;
+            long ahead = next - now;
+            if (ahead > limit.burstNanos) {
+                return ahead - limit.burstNanos;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            sweep(emailBuckets, now);
+            sweep(ipBuckets, now);
+        }
+    }
+
+    private static void sweep(ConcurrentHashMap<String, AtomicLong> buckets, long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.whiskerwatch.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// Bounded in-process cache of detached principals keyed by email, sitting in front of
+// CustomUserDetailsService.loadUserByUsername. Entries expire after a short TTL so that
+// changes made elsewhere (e.g. deactivation) take effect quickly; UserService evicts
+// explicitly on updates and deletes.
+@Component
+public class PrincipalCache {
+
+    private record Entry(CustomUserDetailsService.CustomUserPrincipal principal, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PrincipalCache(@Value("${auth.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${auth.principal-cache.ttl:60000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public CustomUserDetailsService.CustomUserPrincipal get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            if (entries.remove(email, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal();
+    }
+
+    public void put(String email, CustomUserDetailsService.CustomUserPrincipal principal) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(email, new Entry(principal, System.nanoTime() + ttlNanos));
+    }
+
+    // Evict now and again once the surrounding transaction commits, so a concurrent
+    // load cannot re-cache the old row between the write and the commit.
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        invalidate(() -> entries.remove(email) != null);
+    }
+
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        invalidate(() -> entries.values().removeIf(entry -> userId.equals(entry.principal().getUserId())));
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "size", entries.size(),
+                "maxSize", maxSize,
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "evictions", evictions.sum(),
+                "invalidations", invalidations.sum()
+        );
+    }
+
+    private void invalidate(BooleanSupplier removal) {
+        if (removal.getAsBoolean()) {
+            invalidations.increment();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removal.getAsBoolean();
+                }
+            });
+        }
+    }
+
+    // Drop expired entries first; if the cache is still full, drop an arbitrary tenth of it
+    private void makeRoom() {
+        long now = System.nanoTime();
+        int removed = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt() - now <= 0) {
+                it.remove();
+                removed++;
+            }
+        }
+        int target = maxSize - Math.max(1, maxSize / 10);
+        it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            removed++;
+        }
+        evictions.add(removed);
+    }
+}
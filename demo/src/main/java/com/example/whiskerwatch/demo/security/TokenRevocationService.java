@@ -0,0 +1,149 @@
+package com.example.whiskerwatch.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// In-memory token revocation checked on every authenticated request, so the check is
+// O(1) and never touches the database:
+//  - revoked token ids (jti) are kept in buckets keyed by the token's expiry, so a whole
+//    bucket is dropped once every token in it has expired anyway;
+//  - a Bloom filter in front answers the common "not revoked" case in a few bit probes;
+//  - a per-user watermark (epoch millis) invalidates every token issued up to it
+//    (password change, deactivation, deletion).
+// State is per instance and is lost on restart; access tokens are short-lived, which
+// bounds how long a revocation needs to be remembered.
+@Component
+public class TokenRevocationService {
+
+    private static final int HASHES = 4;
+
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int mask;
+
+        private BloomFilter(int bits) {
+            this.words = new AtomicLongArray(Math.max(1, bits >>> 6));
+            this.mask = words.length() * 64 - 1;
+        }
+
+        private void add(String value) {
+            int h1 = value.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                long word;
+                do {
+                    word = words.get(bit >>> 6);
+                } while (!words.compareAndSet(bit >>> 6, word, word | (1L << bit)));
+            }
+        }
+
+        private boolean mightContain(String value) {
+            int h1 = value.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return h | 1; // odd, so the probe sequence covers the table
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Set<String>> revokedByExpiryBucket = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> userWatermarks = new ConcurrentHashMap<>();
+    private final long bucketSeconds;
+    private final long maxTokenLifetimeMillis;
+    private final int bloomBits;
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationService(@Value("${jwt.revocation.bucket-seconds:300}") long bucketSeconds,
+                                  @Value("${jwt.revocation.bloom-bits:1048576}") int bloomBits,
+                                  @Value("${jwt.expiration:86400000}") long tokenLifetimeMillis) {
+        this.bucketSeconds = bucketSeconds;
+        this.bloomBits = Integer.highestOneBit(Math.max(64, bloomBits));
+        this.maxTokenLifetimeMillis = tokenLifetimeMillis;
+        this.bloomFilter = new BloomFilter(this.bloomBits);
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        if (claims.getUserId() != null && claims.getIssuedAt() != null) {
+            Long watermark = userWatermarks.get(claims.getUserId());
+            // Inclusive: a token issued in the same millisecond as the revocation is revoked too
+            if (watermark != null && claims.getIssuedAt().getTime() <= watermark) {
+                return true;
+            }
+        }
+
+        String tokenId = claims.getTokenId();
+        if (tokenId == null || claims.getExpiration() == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        Set<String> bucket = revokedByExpiryBucket.get(bucketOf(claims.getExpiration()));
+        return bucket != null && bucket.contains(tokenId);
+    }
+
+    // Revoke a single token (logout)
+    public synchronized void revoke(JwtClaims claims) {
+        if (claims.getTokenId() == null || claims.getExpiration() == null || claims.isExpired()) {
+            return;
+        }
+        revokedByExpiryBucket
+                .computeIfAbsent(bucketOf(claims.getExpiration()), k -> ConcurrentHashMap.newKeySet())
+                .add(claims.getTokenId());
+        bloomFilter.add(claims.getTokenId());
+    }
+
+    // Invalidate every token issued to the user up to now
+    public void revokeAllForUser(Long userId) {
+        if (userId != null) {
+            userWatermarks.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "buckets", revokedByExpiryBucket.size(),
+                "revokedTokens", revokedByExpiryBucket.values().stream().mapToInt(Set::size).sum(),
+                "userWatermarks", userWatermarks.size(),
+                "bloomBits", bloomBits
+        );
+    }
+
+    // Drop buckets whose tokens have all expired, rebuild the Bloom filter from what is left
+    // (so it does not fill up over time) and forget watermarks older than any live token.
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval:300000}")
+    public synchronized void sweep() {
+        long nowMillis = System.currentTimeMillis();
+        long now = nowMillis / 1000;
+        revokedByExpiryBucket.keySet().removeIf(bucket -> (bucket + 1) * bucketSeconds <= now);
+        userWatermarks.values().removeIf(watermark -> watermark + maxTokenLifetimeMillis < nowMillis);
+
+        BloomFilter rebuilt = new BloomFilter(bloomBits);
+        revokedByExpiryBucket.values().forEach(bucket -> bucket.forEach(rebuilt::add));
+        bloomFilter = rebuilt;
+    }
+
+    private long bucketOf(Date expiration) {
+        return epochSeconds(expiration) / bucketSeconds;
+    }
+
+    private static long epochSeconds(Date date) {
+        return date.getTime() / 1000;
+    }
+}
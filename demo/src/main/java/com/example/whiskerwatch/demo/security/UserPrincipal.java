@@ -0,0 +1,36 @@
+package com.example.whiskerwatch.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Common view of the authenticated user, whether it was loaded from the database
+// (CustomUserPrincipal) or rebuilt from verified token claims (JwtUserPrincipal).
+// @PreAuthorize expressions such as authentication.principal.userId rely on these getters.
+public interface UserPrincipal extends UserDetails {
+
+    Long getUserId();
+
+    String getRole();
+
+    String getCustomerType();
+
+    static List<GrantedAuthority> authoritiesFor(String role, String customerType) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+
+        // Add role-based authority
+        if (role != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+
+        // Add customer type-based authority if exists
+        if (customerType != null) {
+            authorities.add(new SimpleGrantedAuthority("TYPE_" + customerType));
+        }
+
+        return List.copyOf(authorities);
+    }
+}
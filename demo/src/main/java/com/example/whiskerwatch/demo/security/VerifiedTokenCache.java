@@ -0,0 +1,106 @@
+package com.example.whiskerwatch.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Maps a digest of the raw bearer token to claims that already passed verification,
+// so clients reusing the same token skip the HMAC check and JSON parsing entirely.
+// Entries live until the token's own exp; the raw token string is never stored.
+@Component
+public class VerifiedTokenCache {
+
+    // First 128 bits of the SHA-256 of the token
+    private record TokenKey(long high, long low) {
+    }
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    // ConcurrentHashMap gives lock-free reads and per-bin locking on writes,
+    // so lookups do not contend across Tomcat threads
+    private final ConcurrentHashMap<TokenKey, JwtClaims> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${jwt.token-cache.max-size:50000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public JwtClaims get(String token) {
+        TokenKey key = keyOf(token);
+        JwtClaims claims = entries.get(key);
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+        if (claims.isExpired()) {
+            if (entries.remove(key, claims)) {
+                expired.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return claims;
+    }
+
+    public void put(String token, JwtClaims claims) {
+        if (maxSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            removeExpired();
+            // Still full of live tokens: skip caching rather than evicting a hot entry
+            if (entries.size() >= maxSize) {
+                rejected.increment();
+                return;
+            }
+        }
+        entries.put(keyOf(token), claims);
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "size", entries.size(),
+                "maxSize", maxSize,
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "expired", expired.sum(),
+                "rejected", rejected.sum()
+        );
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(claims -> {
+            boolean stale = claims.getExpiration().getTime() <= now;
+            if (stale) {
+                expired.increment();
+            }
+            return stale;
+        });
+    }
+
+    private static TokenKey keyOf(String token) {
+        MessageDigest digest = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenKey(hash.getLong(), hash.getLong());
+    }
+}
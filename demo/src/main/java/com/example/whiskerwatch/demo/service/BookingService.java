@@ -1,111 +1,149 @@
 package com.example.whiskerwatch.demo.service;
+import com.example.whiskerwatch.demo.controller.response.BookingActionResult;
+import com.example.whiskerwatch.demo.controller.response.BookingResponse;
+import com.example.whiskerwatch.demo.controller.request.SlotRequest;
+import com.example.whiskerwatch.demo.controller.response.CursorPage;
+import com.example.whiskerwatch.demo.controller.response.SlotAvailability;
+import com.example.whiskerwatch.demo.controller.response.UserResponse;
+import com.example.whiskerwatch.demo.exception.BookingConflictException;
 import com.example.whiskerwatch.demo.model.Booking;
-import com.example.whiskerwatch.demo.model.Pet;
-import com.example.whiskerwatch.demo.model.User;
+import com.example.whiskerwatch.demo.model.BookingState;
 import com.example.whiskerwatch.demo.model.BookingStatus;
 import com.example.whiskerwatch.demo.repository.BookingJPARepository;
 import com.example.whiskerwatch.demo.repository.PetJPARepository;
 import com.example.whiskerwatch.demo.repository.UserJPARepository;
-import com.example.whiskerwatch.demo.repository.BookingStatusJPARepository;
+import com.example.whiskerwatch.demo.repository.BookingSearchCriteria;
+import com.example.whiskerwatch.demo.repository.BookingStatusChange;
+import com.example.whiskerwatch.demo.repository.BookingWriteCheck;
+import com.example.whiskerwatch.demo.repository.StatusCount;
 import lombok.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class BookingService {
+
     private final BookingJPARepository bookingRepository;
     private final PetJPARepository petRepository;
     private final UserJPARepository userRepository;
-    private final BookingStatusJPARepository bookingStatusRepository;
-    
+    private final ReferenceDataRegistry referenceData;
+    private final KeysetPagination pagination;
+    private final SitterScheduleIndex scheduleIndex;
 
     public BookingService(BookingJPARepository bookingRepository,
                           PetJPARepository petRepository,
                           UserJPARepository userRepository,
-                          BookingStatusJPARepository bookingStatusRepository) {
+                          ReferenceDataRegistry referenceData,
+                          KeysetPagination pagination,
+                          SitterScheduleIndex scheduleIndex) {
         this.bookingRepository = bookingRepository;
         this.petRepository = petRepository;
         this.userRepository = userRepository;
-        this.bookingStatusRepository = bookingStatusRepository;
+        this.referenceData = referenceData;
+        this.pagination = pagination;
+        this.scheduleIndex = scheduleIndex;
     }
 
-    public List<Booking> getBookings(Long ownerId, Long sitterId, Long petId, String status, LocalDate bookingDate) {
-        if (ownerId != null) {
-            return bookingRepository.findByOwnerId(ownerId);
-        }
-        if (sitterId != null) {
-            return bookingRepository.findBySitterId(sitterId);
+    // Read path that only renders BookingResponse. All supplied filters are combined and
+    // only those become predicates (see BookingJPARepositoryCustomImpl). Pages are ordered
+    // by (bookingDate, startTime, id), newest first when descending.
+    public CursorPage<BookingResponse> getBookingResponses(Long ownerId, Long sitterId, Long petId, String status,
+                                                           LocalDate bookingDate, LocalDate fromDate, LocalDate toDate,
+                                                           boolean descending, String cursor, Integer limit) {
+        if (bookingDate != null) {
+            fromDate = bookingDate;
+            toDate = bookingDate;
         }
-        if (petId != null) {
-            return bookingRepository.findByPetId(petId);
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("fromDate must not be after toDate");
         }
+
+        Long statusId = null;
         if (status != null && !status.isBlank()) {
-            BookingStatus bookingStatus = bookingStatusRepository.findByStatusName(status)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid status: " + status));
-            return bookingRepository.findByStatus(bookingStatus);
+            statusId = BookingState.fromName(status)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid status: " + status))
+                .getId();
         }
-        if (bookingDate != null) {
-            return bookingRepository.findByBookingDate(bookingDate);
-        }
-        return bookingRepository.findAll();
-    }
 
-    public Optional<Booking> getBooking(Long bookingId) {
-        return bookingRepository.findById(bookingId);
-    }
+        BookingSearchCriteria.BookingSearchCriteriaBuilder criteria = BookingSearchCriteria.builder()
+                .ownerId(ownerId)
+                .sitterId(sitterId)
+                .petId(petId)
+                .statusId(statusId)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .descending(descending);
 
-    public List<Booking> getBookingsByOwner(Long ownerId) {
-        return bookingRepository.findByOwnerId(ownerId);
+        String[] after = KeysetPagination.decode(cursor, 3);
+        if (after != null) {
+            criteria.afterDate(LocalDate.parse(after[0]))
+                    .afterTime(LocalTime.parse(after[1]))
+                    .afterId(Long.valueOf(after[2]));
+        }
+
+        int pageSize = pagination.pageSize(limit);
+        List<BookingResponse> rows = bookingRepository.search(criteria.build(), pageSize + 1);
+        return pagination.page(rows, pageSize,
+                booking -> new Object[] {booking.getBookingDate(), booking.getStartTime(), booking.getBookingId()});
     }
 
-    public List<Booking> getBookingsBySitter(Long sitterId) {
-        return bookingRepository.findBySitterId(sitterId);
+    // Bookings dated today or later, up to an optional horizon of days, soonest first
+    public CursorPage<BookingResponse> getUpcomingBookingResponses(Long ownerId, Long sitterId, Integer days,
+                                                                   String cursor, Integer limit) {
+        if (days != null && days < 0) {
+            throw new IllegalArgumentException("days must not be negative");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = days != null ? today.plusDays(days) : null;
+        return getBookingResponses(ownerId, sitterId, null, null, null, today, horizon, false, cursor, limit);
     }
 
-    public List<Booking> getBookingsByPet(Long petId) {
-        return bookingRepository.findByPetId(petId);
+    public Optional<BookingResponse> getBookingResponse(Long bookingId) {
+        return bookingRepository.findResponseById(bookingId);
     }
 
-    public Booking createBooking(@NonNull LocalDate bookingDate, @NonNull LocalTime startTime,
+    // Pet, owner, sitter and status are bound as unloaded references; checkWrite is the only
+    // read, so a create costs the lock, the check and the INSERT
+    @Transactional
+    public BookingResponse createBooking(@NonNull LocalDate bookingDate, @NonNull LocalTime startTime,
                                 @NonNull LocalTime endTime, @NonNull Long statusId, BigDecimal totalCost,
                                 String specialRequests, @NonNull Long petId, @NonNull Long ownerId,
                                 Long sitterId) {
 
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new IllegalArgumentException("Pet not found"));
-
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new IllegalArgumentException("Owner not found"));
-
-        User sitter = null;
-        if (sitterId != null) {
-            sitter = userRepository.findById(sitterId)
-                    .orElseThrow(() -> new IllegalArgumentException("Sitter not found"));
-        }
-
-        BookingStatus status = bookingStatusRepository.findById(statusId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking status not found"));
+        BookingStatus status = referenceData.bookingStatuses().reference(statusId);
+        BookingWriteCheck check = checkWrite(null, sitterId, petId, ownerId, statusId,
+                bookingDate, startTime, endTime);
 
         Booking booking = new Booking();
         booking.setBookingDate(bookingDate);
         booking.setStartTime(startTime);
         booking.setEndTime(endTime);
         booking.setStatus(status);
-        booking.setPet(pet);
-        booking.setOwner(owner);
-        booking.setSitter(sitter);
+        booking.setPet(petRepository.getReferenceById(petId));
+        booking.setOwner(userRepository.getReferenceById(ownerId));
+        booking.setSitter(sitterId != null ? userRepository.getReferenceById(sitterId) : null);
         booking.setTotalCost(totalCost);
         booking.setSpecialRequests(specialRequests);
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.saveAndFlush(booking);
+        scheduleIndex.invalidate(sitterId, bookingDate);
+        return toResponse(saved, petId, check);
     }
 
-    public Booking updateBooking(@NonNull Long bookingId, @NonNull LocalDate bookingDate,
+    @Transactional
+    public BookingResponse updateBooking(@NonNull Long bookingId, @NonNull LocalDate bookingDate,
                               @NonNull LocalTime startTime, @NonNull LocalTime endTime,
                               @NonNull Long statusId, BigDecimal totalCost, String specialRequests,
                               @NonNull Long petId, @NonNull Long ownerId, Long sitterId) {
@@ -113,21 +151,14 @@ public class BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new IllegalArgumentException("Pet not found"));
+        BookingStatus status = referenceData.bookingStatuses().reference(statusId);
+        requireTransition(booking.getState(), state(statusId));
+        BookingWriteCheck check = checkWrite(bookingId, sitterId, petId, ownerId, statusId,
+                bookingDate, startTime, endTime);
 
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new IllegalArgumentException("Owner not found"));
-
-        // Handle sitter - can be null for PENDING bookings
-        User sitter = null;
-        if (sitterId != null) {
-            sitter = userRepository.findById(sitterId)
-                    .orElseThrow(() -> new IllegalArgumentException("Sitter not found"));
-        }
-
-        BookingStatus status = bookingStatusRepository.findById(statusId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking status not found"));
+        // The booking may move to another sitter or day; both schedules change
+        Long previousSitterId = booking.getSitter() != null ? booking.getSitter().getId() : null;
+        LocalDate previousDate = booking.getBookingDate();
 
         // Update booking fields
         booking.setBookingDate(bookingDate);
@@ -136,41 +167,205 @@ public class BookingService {
         booking.setStatus(status);
         booking.setTotalCost(totalCost);
         booking.setSpecialRequests(specialRequests);
-        booking.setPet(pet);
-        booking.setOwner(owner);
-        booking.setSitter(sitter); // This can be null
+        booking.setPet(petRepository.getReferenceById(petId));
+        booking.setOwner(userRepository.getReferenceById(ownerId));
+        // Handle sitter - can be null for PENDING bookings
+        booking.setSitter(sitterId != null ? userRepository.getReferenceById(sitterId) : null);
 
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.saveAndFlush(booking);
+        scheduleIndex.invalidate(previousSitterId, previousDate);
+        scheduleIndex.invalidate(sitterId, bookingDate);
+        return toResponse(saved, petId, check);
     }
 
+    // Single-booking form of applyStatus, same one-statement path
+    @Transactional
     public void updateBookingStatus(@NonNull Long bookingId, @NonNull Long statusId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        BookingActionResult result = applyStatus(List.of(bookingId), statusId).get(0);
+        switch (result.outcome()) {
+            case NOT_FOUND -> throw new IllegalArgumentException("Booking not found");
+            case NOT_ALLOWED -> throw new BookingConflictException(
+                    "Booking cannot move from " + result.status() + " to " + state(statusId));
+            case UPDATED, UNCHANGED -> { }
+        }
+    }
 
-        BookingStatus status = bookingStatusRepository.findById(statusId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking status not found"));
+    // Moves many bookings to one status with a single UPDATE, restricted to bookings whose
+    // current state may move there (BookingState.previousStates). Results follow request order;
+    // repeated ids are reported once.
+    @Transactional
+    public List<BookingActionResult> applyStatus(@NonNull Collection<Long> bookingIds, @NonNull Long statusId) {
+        BookingState target = state(statusId);
+        List<Long> fromStatusIds = target.previousStates().stream()
+                .map(BookingState::getId)
+                .toList();
 
-        booking.setStatus(status);
-        bookingRepository.save(booking);
+        Set<Long> requested = new LinkedHashSet<>(bookingIds);
+        Map<Long, BookingStatusChange> changes = new HashMap<>();
+        for (BookingStatusChange change : bookingRepository.changeStatus(requested, statusId, fromStatusIds)) {
+            changes.put(change.bookingId(), change);
+            if (change.updated()) {
+                scheduleIndex.invalidate(change.sitterId(), change.bookingDate());
+            }
+        }
+
+        return requested.stream()
+                .map(id -> {
+                    BookingStatusChange change = changes.get(id);
+                    if (change == null) {
+                        return new BookingActionResult(id, BookingActionResult.Outcome.NOT_FOUND, null);
+                    }
+                    if (change.updated()) {
+                        return new BookingActionResult(id, BookingActionResult.Outcome.UPDATED, target.name());
+                    }
+                    // Same rule as requireTransition: staying in the current state succeeds
+                    if (statusId.equals(change.previousStatusId())) {
+                        return new BookingActionResult(id, BookingActionResult.Outcome.UNCHANGED, target.name());
+                    }
+                    return new BookingActionResult(id, BookingActionResult.Outcome.NOT_ALLOWED,
+                            BookingState.fromId(change.previousStatusId()).map(Enum::name).orElse(null));
+                })
+                .toList();
     }
 
     public void deleteBooking(@NonNull Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
         bookingRepository.delete(booking);
+        invalidateSchedule(booking);
     }
 
-    public List<Booking> getBookingsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return bookingRepository.findByBookingDateBetween(startDate, endDate);
+    // Every state, including those with no bookings, from one grouped count on status_id
+    public Map<BookingState, Long> countByState() {
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            counts.put(state, 0L);
+        }
+        for (StatusCount row : bookingRepository.countByStatus()) {
+            BookingState.fromId(row.statusId()).ifPresent(state -> counts.put(state, row.count()));
+        }
+        return counts;
     }
 
-    public List<Booking> getBookingsByStatus(BookingStatus status) {
-        return bookingRepository.findByStatus(status);
+    // Answered from SitterScheduleIndex; cancelled and rejected bookings do not block a slot
+    public boolean isTimeSlotAvailable(@NonNull Long sitterId, @NonNull LocalDate date,
+                                       @NonNull LocalTime startTime, @NonNull LocalTime endTime) {
+        return scheduleIndex.isAvailable(sitterId, date, startTime, endTime);
     }
 
-    public boolean isTimeSlotAvailable(Long sitterId, LocalDate date, LocalTime startTime, LocalTime endTime) {
-        List<Booking> conflictingBookings = bookingRepository.findBySitterIdAndBookingDateAndTimeOverlap(
-                sitterId, date, startTime, endTime);
-        return conflictingBookings.isEmpty();
+    // Every sitter (optionally limited to sitterIds) who is free for the whole window
+    public List<UserResponse> getAvailableSitters(@NonNull LocalDate date, @NonNull LocalTime startTime,
+                                                  @NonNull LocalTime endTime, List<Long> sitterIds) {
+        requireOrderedWindow(startTime, endTime);
+        if (sitterIds == null || sitterIds.isEmpty()) {
+            return userRepository.findAvailableSitters(date, startTime, endTime);
+        }
+        return userRepository.findAvailableSittersByIdIn(sitterIds, date, startTime, endTime);
+    }
+
+    // Many candidate slots for one sitter; each day is loaded into the schedule index at most once
+    public List<SlotAvailability> checkSlots(@NonNull Long sitterId, @NonNull List<SlotRequest> slots) {
+        return slots.stream()
+                .map(slot -> {
+                    requireOrderedWindow(slot.getStartTime(), slot.getEndTime());
+                    return new SlotAvailability(slot.getDate(), slot.getStartTime(), slot.getEndTime(),
+                            scheduleIndex.isAvailable(sitterId, slot.getDate(), slot.getStartTime(), slot.getEndTime()));
+                })
+                .toList();
+    }
+
+    // Check-then-write is made safe by transaction-scoped advisory locks on the sitter and the
+    // pet: writers for the same sitter or pet queue up, everyone else proceeds in parallel.
+    // Locks are taken in a fixed order (sitter, then pet) so two writers cannot deadlock, after
+    // a shared lock that keeps them out while a CSV import checks and inserts.
+    // The check has to be a separate statement from the locks: a READ COMMITTED snapshot is
+    // taken when a statement starts, so one that waited for a lock would not see the booking
+    // the previous holder committed. Inactive bookings take no locks and skip the overlap test.
+    private BookingWriteCheck checkWrite(Long bookingId, Long sitterId, @NonNull Long petId,
+                                         @NonNull Long ownerId, Long statusId,
+                                         LocalDate date, LocalTime startTime, LocalTime endTime) {
+        requireOrderedWindow(startTime, endTime);
+        boolean active = !isInactive(statusId);
+
+        if (active && sitterId != null) {
+            bookingRepository.lockSitterAndPetSchedules(Long.hashCode(sitterId), Long.hashCode(petId));
+        } else if (active) {
+            bookingRepository.lockPetSchedule(Long.hashCode(petId));
+        }
+
+        BookingWriteCheck check = bookingRepository.checkBookingWrite(petId, ownerId,
+                sitterId != null ? sitterId : 0L, date, startTime, endTime, bookingId != null ? bookingId : 0L);
+
+        if (check.getPetOwnerId() == null) {
+            throw new IllegalArgumentException("Pet not found");
+        }
+        if (check.getOwnerId() == null) {
+            throw new IllegalArgumentException("Owner not found");
+        }
+        if (sitterId != null && check.getSitterId() == null) {
+            throw new IllegalArgumentException("Sitter not found");
+        }
+        if (!check.getPetOwnerId().equals(ownerId)) {
+            throw new IllegalArgumentException("Pet does not belong to owner");
+        }
+        if (active && Boolean.TRUE.equals(check.getSitterConflict())) {
+            throw new BookingConflictException("Sitter already has a booking that overlaps this time slot");
+        }
+        if (active && Boolean.TRUE.equals(check.getPetConflict())) {
+            throw new BookingConflictException("Pet already has a booking that overlaps this time slot");
+        }
+        return check;
+    }
+
+    // Same shape as BOOKING_RESPONSE_SELECT, filled from the write check instead of lazy proxies
+    private BookingResponse toResponse(Booking booking, Long petId, BookingWriteCheck check) {
+        return new BookingResponse(
+                booking.getId(),
+                booking.getBookingDate(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                referenceData.bookingStatuses().name(booking.getStatus().getId()).orElse(null),
+                booking.getTotalCost(),
+                booking.getSpecialRequests(),
+                booking.getCreatedAt(),
+                booking.getUpdatedAt(),
+                petId,
+                check.getPetName(),
+                check.getPetTypeName(),
+                check.getOwnerId(),
+                check.getOwnerFirstName() + " " + check.getOwnerLastName(),
+                check.getOwnerEmail(),
+                check.getSitterId(),
+                check.getSitterId() != null ? check.getSitterFirstName() + " " + check.getSitterLastName() : null,
+                check.getSitterEmail()
+        );
+    }
+
+    private static BookingState state(Long statusId) {
+        return BookingState.fromId(statusId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking status not found"));
+    }
+
+    private static boolean isInactive(Long statusId) {
+        return BookingState.fromId(statusId).map(state -> !state.isActive()).orElse(false);
+    }
+
+    // Staying in the same state is always allowed
+    private static void requireTransition(BookingState from, BookingState to) {
+        if (from != to && !from.canMoveTo(to)) {
+            throw new BookingConflictException("Booking cannot move from " + from + " to " + to);
+        }
+    }
+
+    private static void requireOrderedWindow(LocalTime startTime, LocalTime endTime) {
+        if (endTime.isBefore(startTime)) {
+            throw new IllegalArgumentException("endTime must not be before startTime");
+        }
+    }
+
+    private void invalidateSchedule(Booking booking) {
+        if (booking.getSitter() != null) {
+            scheduleIndex.invalidate(booking.getSitter().getId(), booking.getBookingDate());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+package com.example.whiskerwatch.demo.service;
+
+import com.example.whiskerwatch.demo.controller.response.ImportReport;
+import com.example.whiskerwatch.demo.controller.response.ImportReport.RowError;
+import com.example.whiskerwatch.demo.model.BookingState;
+import com.example.whiskerwatch.demo.repository.BulkImportRepository;
+import com.example.whiskerwatch.demo.repository.UserJPARepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Admin CSV import for partner onboarding. A file is parsed and validated row by row in
+// memory (lookup names resolved through ReferenceDataRegistry), passwords are hashed
+// in parallel on a dedicated fork-join pool, and the surviving rows are loaded in one
+// transaction through BulkImportRepository (COPY into staging, set-based checks, one
+// INSERT ... SELECT). Bad rows are skipped and listed in the returned report.
+@Service
+public class BulkImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private record UserRow(long line, String username, String email, String password, Long customerTypeId,
+                           String firstName, String lastName, String phoneNumber, String address) {
+    }
+
+    private record PetRow(long line, String ownerEmail, String name, Long typeId, Integer age, String breed,
+                          BigDecimal weight, String specialInstructions) {
+    }
+
+    private record BookingRow(long line, String ownerEmail, String petName, String sitterEmail, LocalDate bookingDate,
+                              LocalTime startTime, LocalTime endTime, Long statusId, BigDecimal totalCost,
+                              String specialRequests) {
+    }
+
+    private final BulkImportRepository importRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final TransactionTemplate transactionTemplate;
+    private final SitterScheduleIndex scheduleIndex;
+    private final SecondLevelCache secondLevelCache;
+    private final BCryptPasswordEncoder bcrypt;
+    private final ForkJoinPool hashPool;
+    private final int maxRows;
+    private final int maxReportedErrors;
+
+    public BulkImportService(BulkImportRepository importRepository,
+                             ReferenceDataRegistry referenceData,
+                             TransactionTemplate transactionTemplate,
+                             SitterScheduleIndex scheduleIndex,
+                             SecondLevelCache secondLevelCache,
+                             @Value("${auth.password.bcrypt-strength:10}") int bcryptStrength,
+                             @Value("${import.hash-parallelism:0}") int hashParallelism,
+                             @Value("${import.max-rows:200000}") int maxRows,
+                             @Value("${import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.importRepository = importRepository;
+        this.referenceData = referenceData;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduleIndex = scheduleIndex;
+        this.secondLevelCache = secondLevelCache;
+        this.bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        this.hashPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+        this.maxRows = maxRows;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdown();
+    }
+
+    // Columns: username, email, password, first_name, last_name, phone_number, address, customer_type.
+    // A password that is already a BCrypt hash is stored as is.
+    public ImportReport importUsers(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        ReferenceDataRegistry.Lookup<?> customerTypes = referenceData.customerTypes();
+        long customerRoleId = referenceData.roles().id("CUSTOMER")
+                .orElseThrow(() -> new IllegalStateException("CUSTOMER role is missing"));
+
+        List<RowError> errors = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        List<UserRow> rows = readRows(csv, List.of("username", "email", "password", "first_name", "last_name",
+                "phone_number", "address", "customer_type"), errors, row -> {
+            String username = row.required("username", 50);
+            if (username.length() < 3) {
+                throw new IllegalArgumentException("username must be between 3 and 50 characters");
+            }
+            String email = row.required("email", 100);
+            if (!EMAIL.matcher(email).matches()) {
+                throw new IllegalArgumentException("Email should be valid");
+            }
+            String password = row.required("password", 255);
+            if (password.length() < 6) {
+                throw new IllegalArgumentException("Password must be at least 6 characters");
+            }
+            String phoneNumber = row.required("phone_number", 20);
+            UserRow user = new UserRow(row.line(), username, email, password,
+                    lookup(customerTypes, row.required("customer_type", 20), "customer type"),
+                    row.required("first_name", 255), row.required("last_name", 255), phoneNumber,
+                    row.required("address", Integer.MAX_VALUE));
+            // Duplicates inside the file; duplicates of stored users are found in bulk later
+            if (!usernames.add(username)) {
+                throw new IllegalArgumentException("Duplicate username in file: " + username);
+            }
+            if (!emails.add(email)) {
+                throw new IllegalArgumentException("Duplicate email in file: " + email);
+            }
+            if (!phoneNumbers.add(phoneNumber)) {
+                throw new IllegalArgumentException("Duplicate phone number in file: " + phoneNumber);
+            }
+            return user;
+        });
+        // Every line either parsed into a row or produced exactly one error so far
+        int totalRows = rows.size() + errors.size();
+
+        List<String> hashes = hashPool.submit(() -> rows.parallelStream()
+                .map(row -> BCRYPT_HASH.matcher(row.password()).matches() ? row.password() : bcrypt.encode(row.password()))
+                .toList()).join();
+
+        Integer imported = transactionTemplate.execute(status -> {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            long[] ids = importRepository.allocateIds("users_id_seq", rows.size());
+            List<Object[]> staged = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                UserRow row = rows.get(i);
+                staged.add(new Object[] {row.line(), ids[i], row.username(), row.email(), hashes.get(i),
+                        row.customerTypeId(), row.firstName(), row.lastName(), row.phoneNumber(), row.address()});
+            }
+            importRepository.stageUsers(staged);
+            reject("import_users", importRepository.findUserConflicts(), errors);
+            return importRepository.insertUsers(customerRoleId);
+        });
+        secondLevelCache.evictQueryRegion(UserJPARepository.USERS_BY_EMAIL_REGION);
+        return report("users", totalRows, imported, errors, started);
+    }
+
+    // Columns: owner_email, name, type, and optionally age, breed, weight, special_instructions
+    public ImportReport importPets(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        ReferenceDataRegistry.Lookup<?> petTypes = referenceData.petTypes();
+
+        List<RowError> errors = new ArrayList<>();
+        List<PetRow> rows = readRows(csv, List.of("owner_email", "name", "type"), errors, row -> {
+            Integer age = row.optional("age", Integer::valueOf);
+            if (age != null && age < 0) {
+                throw new IllegalArgumentException("Age must be non-negative");
+            }
+            BigDecimal weight = row.optional("weight", BigDecimal::new);
+            if (weight != null && (weight.signum() < 0 || weight.setScale(2, RoundingMode.HALF_UP).precision() > 5)) {
+                throw new IllegalArgumentException("Weight must be between 0 and 999.99");
+            }
+            return new PetRow(row.line(), row.required("owner_email", 100), row.required("name", 100),
+                    lookup(petTypes, row.required("type", 50), "pet type"), age,
+                    row.optional("breed", 100), weight, row.optional("special_instructions", Integer.MAX_VALUE));
+        });
+        int totalRows = rows.size() + errors.size();
+
+        Integer imported = transactionTemplate.execute(status -> {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            long[] ids = importRepository.allocateIds("pets_id_seq", rows.size());
+            List<Object[]> staged = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                PetRow row = rows.get(i);
+                staged.add(new Object[] {row.line(), ids[i], row.ownerEmail(), row.name(), row.typeId(), row.age(),
+                        row.breed(), row.weight(), row.specialInstructions()});
+            }
+            importRepository.stagePets(staged);
+            reject("import_pets", importRepository.findPetConflicts(), errors);
+            return importRepository.insertPets();
+        });
+        return report("pets", totalRows, imported, errors, started);
+    }
+
+    // Columns: owner_email, pet_name, booking_date, start_time, end_time, status, and optionally
+    // sitter_email, total_cost, special_requests. The pet is found by owner and name.
+    public ImportReport importBookings(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        ReferenceDataRegistry.Lookup<?> statuses = referenceData.bookingStatuses();
+        List<Long> inactiveStatusIds = Arrays.stream(BookingState.values())
+                .filter(state -> !state.isActive())
+                .map(BookingState::getId)
+                .toList();
+        long sitterTypeId = referenceData.customerTypes().id("SITTER")
+                .orElseThrow(() -> new IllegalStateException("SITTER customer type is missing"));
+
+        List<RowError> errors = new ArrayList<>();
+        List<BookingRow> rows = readRows(csv, List.of("owner_email", "pet_name", "booking_date", "start_time",
+                "end_time", "status"), errors, row -> {
+            LocalTime startTime = LocalTime.parse(row.required("start_time", 20));
+            LocalTime endTime = LocalTime.parse(row.required("end_time", 20));
+            if (endTime.isBefore(startTime)) {
+                throw new IllegalArgumentException("end_time must not be before start_time");
+            }
+            BigDecimal totalCost = row.optional("total_cost", BigDecimal::new);
+            if (totalCost != null && totalCost.setScale(2, RoundingMode.HALF_UP).precision() > 10) {
+                throw new IllegalArgumentException("total_cost is too large");
+            }
+            return new BookingRow(row.line(), row.required("owner_email", 100), row.required("pet_name", 100),
+                    row.optional("sitter_email", 100), LocalDate.parse(row.required("booking_date", 20)),
+                    startTime, endTime, lookup(statuses, row.required("status", 20), "status"), totalCost,
+                    row.optional("special_requests", Integer.MAX_VALUE));
+        });
+        int totalRows = rows.size() + errors.size();
+
+        Integer imported = transactionTemplate.execute(status -> {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            long[] ids = importRepository.allocateIds("bookings_id_seq", rows.size());
+            List<Object[]> staged = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                BookingRow row = rows.get(i);
+                staged.add(new Object[] {row.line(), ids[i], row.ownerEmail(), row.petName(), row.sitterEmail(),
+                        row.bookingDate(), row.startTime(), row.endTime(), row.statusId(), row.totalCost(),
+                        row.specialRequests()});
+            }
+            importRepository.stageBookings(staged, sitterTypeId);
+            importRepository.lockAllSchedules();
+            reject("import_bookings", importRepository.findBookingConflicts(inactiveStatusIds), errors);
+            int inserted = importRepository.insertBookings();
+            scheduleIndex.invalidateAll();
+            return inserted;
+        });
+        return report("bookings", totalRows, imported, errors, started);
+    }
+
+    // ==================== HELPERS ====================
+
+    // One CSV data row, addressed by header name. Blank cells read as null.
+    private static final class CsvRow {
+        private final long line;
+        private final List<String> fields;
+        private final Map<String, Integer> columns;
+
+        private CsvRow(long line, List<String> fields, Map<String, Integer> columns) {
+            this.line = line;
+            this.fields = fields;
+            this.columns = columns;
+        }
+
+        long line() {
+            return line;
+        }
+
+        String required(String column, int maxLength) {
+            String value = optional(column, maxLength);
+            if (value == null) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return value;
+        }
+
+        String optional(String column, int maxLength) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.length() > maxLength) {
+                throw new IllegalArgumentException(column + " must not exceed " + maxLength + " characters");
+            }
+            return value;
+        }
+
+        <T> T optional(String column, Function<String, T> parser) {
+            String value = optional(column, 100);
+            return value != null ? parser.apply(value) : null;
+        }
+    }
+
+    // Streams the upload; rows that fail parsing or validation are reported and dropped
+    private <T> List<T> readRows(InputStream csv, List<String> requiredColumns, List<RowError> errors,
+                                 Function<CsvRow, T> parser) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        CsvReader.Record header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.fields().size(); i++) {
+            columns.put(header.fields().get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : requiredColumns) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Missing CSV column: " + column);
+            }
+        }
+
+        List<T> rows = new ArrayList<>();
+        int count = 0;
+        for (CsvReader.Record record = reader.next(); record != null; record = reader.next()) {
+            if (++count > maxRows) {
+                throw new IllegalArgumentException("CSV file exceeds " + maxRows + " rows");
+            }
+            try {
+                rows.add(parser.apply(new CsvRow(record.line(), record.fields(), columns)));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                errors.add(new RowError(record.line(), e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private void reject(String stagingTable, List<RowError> conflicts, List<RowError> errors) {
+        errors.addAll(conflicts);
+        importRepository.discardStaged(stagingTable, conflicts.stream().map(RowError::line).distinct().toList());
+    }
+
+    private ImportReport report(String kind, int totalRows, Integer imported, List<RowError> errors, long started) {
+        errors.sort(Comparator.comparingLong(RowError::line));
+        boolean truncated = errors.size() > maxReportedErrors;
+        List<RowError> reported = truncated ? List.copyOf(errors.subList(0, maxReportedErrors)) : List.copyOf(errors);
+        int loaded = imported != null ? imported : 0;
+        return new ImportReport(kind, totalRows, loaded, totalRows - loaded, reported, truncated,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static Long lookup(ReferenceDataRegistry.Lookup<?> lookup, String name, String what) {
+        return lookup.id(name).orElseThrow(() -> new IllegalArgumentException("Unknown " + what + ": " + name));
+    }
+}
@@ -1,31 +1,42 @@
 package com.example.whiskerwatch.demo.service;
 
+import com.example.whiskerwatch.demo.controller.response.CursorPage;
+import com.example.whiskerwatch.demo.controller.response.PetResponse;
 import com.example.whiskerwatch.demo.model.Pet;
 import com.example.whiskerwatch.demo.model.User;
 import com.example.whiskerwatch.demo.model.PetType;
+import com.example.whiskerwatch.demo.repository.ActiveCount;
 import com.example.whiskerwatch.demo.repository.PetJPARepository;
 import com.example.whiskerwatch.demo.repository.UserJPARepository;
-import com.example.whiskerwatch.demo.repository.PetTypeJPARepository;
 
 import lombok.NonNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class PetService {
     private final PetJPARepository petRepository;
     private final UserJPARepository userRepository;
-    private final PetTypeJPARepository petTypeRepository;
+    private final ReferenceDataRegistry referenceData;
+    private final KeysetPagination pagination;
+    private final SitterScheduleIndex scheduleIndex;
 
     public PetService(PetJPARepository petRepository,
                       UserJPARepository userRepository,
-                      PetTypeJPARepository petTypeRepository) {
+                      ReferenceDataRegistry referenceData,
+                      KeysetPagination pagination,
+                      SitterScheduleIndex scheduleIndex) {
         this.petRepository = petRepository;
         this.userRepository = userRepository;
-        this.petTypeRepository = petTypeRepository;
+        this.referenceData = referenceData;
+        this.pagination = pagination;
+        this.scheduleIndex = scheduleIndex;
     }
 
     public List<Pet> getPets(Long ownerId, String petType, Boolean isActive) {
@@ -41,6 +52,20 @@ public class PetService {
         return petRepository.findAll();
     }
 
+    // Total and active pets from one grouped count
+    public Map<String, Long> countPets() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("total", 0L);
+        counts.put("active", 0L);
+        for (ActiveCount row : petRepository.countByActive()) {
+            counts.merge("total", row.count(), Long::sum);
+            if (Boolean.TRUE.equals(row.isActive())) {
+                counts.merge("active", row.count(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
     public Optional<Pet> getPet(Long petId) {
         return petRepository.findById(petId);
     }
@@ -49,14 +74,39 @@ public class PetService {
         return petRepository.findByOwnerId(ownerId);
     }
 
+    // Read paths that only render PetResponse; see PetJPARepository.PET_RESPONSE_SELECT.
+    // Pages are ordered by id.
+    public CursorPage<PetResponse> getPetResponses(Long ownerId, String petType, Boolean isActive,
+                                                   String cursor, Integer limit) {
+        int pageSize = pagination.pageSize(limit);
+        Limit fetch = pagination.fetchLimit(pageSize);
+        String[] after = KeysetPagination.decode(cursor, 1);
+        Long afterId = after != null ? Long.valueOf(after[0]) : 0L;
+
+        List<PetResponse> rows;
+        if (ownerId != null) {
+            rows = petRepository.findResponsesByOwnerId(ownerId, afterId, fetch);
+        } else if (petType != null && !petType.isBlank()) {
+            rows = petRepository.findResponsesByTypeName(petType, afterId, fetch);
+        } else if (isActive != null) {
+            rows = petRepository.findResponsesByIsActive(isActive, afterId, fetch);
+        } else {
+            rows = petRepository.findResponsesAfter(afterId, fetch);
+        }
+        return pagination.page(rows, pageSize, pet -> new Object[] {pet.getPetId()});
+    }
+
+    public Optional<PetResponse> getPetResponse(Long petId) {
+        return petRepository.findResponseById(petId);
+    }
+
     public Pet createPet(@NonNull String name, Integer age, String breed, BigDecimal weight,
                           String specialInstructions, @NonNull Long ownerId, @NonNull Long typeId) {
 
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new IllegalArgumentException("Owner not found"));
 
-        PetType petType = petTypeRepository.findById(typeId)
-                .orElseThrow(() -> new IllegalArgumentException("Pet type not found"));
+        PetType petType = referenceData.petTypes().reference(typeId);
 
         Pet pet = new Pet(name, age, breed, weight, specialInstructions, owner, petType);
         return petRepository.save(pet);
@@ -72,8 +122,7 @@ public class PetService {
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new IllegalArgumentException("Owner not found"));
 
-        PetType petType = petTypeRepository.findById(typeId)
-                .orElseThrow(() -> new IllegalArgumentException("Pet type not found"));
+        PetType petType = referenceData.petTypes().reference(typeId);
 
         pet.setName(name);
         pet.setAge(age);
@@ -93,6 +142,8 @@ public class PetService {
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new IllegalArgumentException("Pet not found"));
         petRepository.delete(pet);
+        // Bookings cascade with the pet; their sitters are not loaded here
+        scheduleIndex.invalidateAll();
     }
 
     public List<Pet> getActivePets() {
@@ -0,0 +1,167 @@
+package com.example.whiskerwatch.demo.service;
+
+import com.example.whiskerwatch.demo.model.BookingState;
+import com.example.whiskerwatch.demo.model.BookingStatus;
+import com.example.whiskerwatch.demo.model.CustomerType;
+import com.example.whiskerwatch.demo.model.PetType;
+import com.example.whiskerwatch.demo.model.Role;
+import com.example.whiskerwatch.demo.repository.BookingStatusJPARepository;
+import com.example.whiskerwatch.demo.repository.CustomerTypeJPARepository;
+import com.example.whiskerwatch.demo.repository.PetTypeJPARepository;
+import com.example.whiskerwatch.demo.repository.RoleJPARepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+// The four reference tables seeded by schema.sql (booking statuses, pet types, roles,
+// customer types), held as immutable id <-> name maps. Loaded once at startup and swapped
+// atomically by reload(). Writes validate ids here and attach getReferenceById proxies, so
+// resolving a status or type never costs a SELECT.
+@Component
+public class ReferenceDataRegistry {
+
+    public record Entry(Long id, String name) {
+    }
+
+    // One reference table. Name lookups ignore case.
+    public static final class Lookup<E> {
+        private final String label;
+        private final List<Entry> entries;
+        private final Map<Long, String> namesById;
+        private final Map<String, Long> idsByName;
+        private final JpaRepository<E, Long> repository;
+
+        private Lookup(String label, List<Entry> entries, JpaRepository<E, Long> repository) {
+            this.label = label;
+            this.entries = entries;
+            this.repository = repository;
+            Map<Long, String> names = new LinkedHashMap<>();
+            Map<String, Long> ids = new LinkedHashMap<>();
+            for (Entry entry : entries) {
+                names.put(entry.id(), entry.name());
+                ids.put(entry.name().toUpperCase(Locale.ROOT), entry.id());
+            }
+            this.namesById = Map.copyOf(names);
+            this.idsByName = Map.copyOf(ids);
+        }
+
+        public List<Entry> entries() {
+            return entries;
+        }
+
+        public Optional<Long> id(String name) {
+            return name == null ? Optional.empty() : Optional.ofNullable(idsByName.get(name.trim().toUpperCase(Locale.ROOT)));
+        }
+
+        public Optional<String> name(Long id) {
+            return Optional.ofNullable(namesById.get(id));
+        }
+
+        public boolean contains(Long id) {
+            return namesById.containsKey(id);
+        }
+
+        // Uninitialized proxy for a known id; unknown ids fail like the old findById lookups did
+        public E reference(Long id) {
+            if (!contains(id)) {
+                throw new IllegalArgumentException(label + " not found");
+            }
+            return repository.getReferenceById(id);
+        }
+    }
+
+    private record Snapshot(Lookup<BookingStatus> bookingStatuses, Lookup<PetType> petTypes,
+                            Lookup<Role> roles, Lookup<CustomerType> customerTypes) {
+    }
+
+    private final BookingStatusJPARepository bookingStatusRepository;
+    private final PetTypeJPARepository petTypeRepository;
+    private final RoleJPARepository roleRepository;
+    private final CustomerTypeJPARepository customerTypeRepository;
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataRegistry(BookingStatusJPARepository bookingStatusRepository,
+                                 PetTypeJPARepository petTypeRepository,
+                                 RoleJPARepository roleRepository,
+                                 CustomerTypeJPARepository customerTypeRepository) {
+        this.bookingStatusRepository = bookingStatusRepository;
+        this.petTypeRepository = petTypeRepository;
+        this.roleRepository = roleRepository;
+        this.customerTypeRepository = customerTypeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    // Re-reads all four tables, e.g. after an admin adds a pet type directly in the database
+    public synchronized Map<String, Object> reload() {
+        Snapshot loaded = new Snapshot(
+                load("Booking status", bookingStatusRepository, BookingStatus::getId, BookingStatus::getStatusName),
+                load("Pet type", petTypeRepository, PetType::getId, PetType::getTypeName),
+                load("Role", roleRepository, Role::getId, Role::getRoleName),
+                load("Customer type", customerTypeRepository, CustomerType::getId, CustomerType::getTypeName));
+        // Queries and transition rules use BookingState ids directly, so they must match the table
+        for (BookingState state : BookingState.values()) {
+            if (loaded.bookingStatuses().name(state.getId()).filter(state.name()::equals).isEmpty()) {
+                throw new IllegalStateException("booking_statuses has no row " + state.getId() + " " + state.name());
+            }
+        }
+        snapshot = loaded;
+        return Map.of(
+                "bookingStatuses", loaded.bookingStatuses().entries().size(),
+                "petTypes", loaded.petTypes().entries().size(),
+                "roles", loaded.roles().entries().size(),
+                "customerTypes", loaded.customerTypes().entries().size()
+        );
+    }
+
+    public Lookup<BookingStatus> bookingStatuses() {
+        return snapshot().bookingStatuses();
+    }
+
+    public Lookup<PetType> petTypes() {
+        return snapshot().petTypes();
+    }
+
+    public Lookup<Role> roles() {
+        return snapshot().roles();
+    }
+
+    public Lookup<CustomerType> customerTypes() {
+        return snapshot().customerTypes();
+    }
+
+    // Normally loaded by the ready event; this covers callers that run before it
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static <E> Lookup<E> load(String label, JpaRepository<E, Long> repository,
+                                      Function<E, Long> id, Function<E, String> name) {
+        List<Entry> entries = repository.findAll().stream()
+                .map(entity -> new Entry(id.apply(entity), name.apply(entity)))
+                .sorted(Comparator.comparing(Entry::id))
+                .toList();
+        return new Lookup<>(label, entries, repository);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.whiskerwatch.demo.service;
+
+import com.example.whiskerwatch.demo.model.RefreshToken;
+import com.example.whiskerwatch.demo.repository.RefreshTokenJPARepository;
+import com.example.whiskerwatch.demo.repository.UserJPARepository;
+import com.example.whiskerwatch.demo.security.CustomUserDetailsService.CustomUserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Issues and rotates opaque refresh tokens. Only a SHA-256 of each token is stored, and
+// a refresh is a single primary-key lookup plus the delete/insert of the rotation.
+@Service
+public class RefreshTokenService {
+
+    public record Rotation(CustomUserPrincipal principal, String refreshToken) {
+    }
+
+    private final RefreshTokenJPARepository refreshTokenRepository;
+    private final UserJPARepository userRepository;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenJPARepository refreshTokenRepository,
+                               UserJPARepository userRepository,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(
+                hash(token),
+                userRepository.getReferenceById(userId),
+                LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration))));
+        return token;
+    }
+
+    // Consume the presented token and issue its replacement. Reused, unknown or expired
+    // tokens and deactivated users all yield empty.
+    @Transactional
+    public Optional<Rotation> rotate(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String tokenHash = hash(token);
+
+        Optional<RefreshToken> stored = refreshTokenRepository.findWithUserByTokenHash(tokenHash);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken refreshToken = stored.get();
+        if (refreshTokenRepository.deleteByTokenHash(tokenHash) == 0
+                || refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+
+        CustomUserPrincipal principal = new CustomUserPrincipal(refreshToken.getUser());
+        if (!principal.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(principal, issue(principal.getUserId())));
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        if (token != null && !token.isBlank()) {
+            refreshTokenRepository.deleteByTokenHash(hash(token));
+        }
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.whiskerwatch.demo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Thin handle on Hibernate's second-level cache (regions configured in ehcache.xml):
+// statistics for the admin endpoint, and eviction for writes Hibernate cannot see.
+@Component
+public class SecondLevelCache {
+
+    private static final String[] ENTITY_REGIONS = {"users", "pets", "roles", "customerTypes"};
+    private static final String[] QUERY_REGIONS = {"users-by-email", "default-query-results-region"};
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // Plain JDBC writes (COPY imports) bypass Hibernate's table timestamps, so cached query
+    // results - including "no such user" - must be dropped by hand
+    public void evictQueryRegion(String region) {
+        sessionFactory.getCache().evictQueryRegion(region);
+    }
+
+    public Map<String, Object> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            regions.put(region, regionStats(statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : QUERY_REGIONS) {
+            regions.put(region, regionStats(statistics.getQueryRegionStatistics(region)));
+        }
+        return Map.of(
+                "enabled", statistics.isStatisticsEnabled(),
+                "hits", statistics.getSecondLevelCacheHitCount(),
+                "misses", statistics.getSecondLevelCacheMissCount(),
+                "puts", statistics.getSecondLevelCachePutCount(),
+                "queryHits", statistics.getQueryCacheHitCount(),
+                "queryMisses", statistics.getQueryCacheMissCount(),
+                "queryPuts", statistics.getQueryCachePutCount(),
+                "regions", regions
+        );
+    }
+
+    private static Map<String, Object> regionStats(CacheRegionStatistics region) {
+        if (region == null) {
+            return Map.of();
+        }
+        return Map.of(
+                "hits", region.getHitCount(),
+                "misses", region.getMissCount(),
+                "puts", region.getPutCount(),
+                "elementsInMemory", region.getElementCountInMemory()
+        );
+    }
+}
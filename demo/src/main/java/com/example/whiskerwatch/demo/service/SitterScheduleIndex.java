@@ -0,0 +1,210 @@
+package com.example.whiskerwatch.demo.service;
+
+import com.example.whiskerwatch.demo.repository.BookingJPARepository;
+import com.example.whiskerwatch.demo.repository.TimeSlot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory index of the slots each sitter has booked on each day, answering availability
+// checks without a database round trip. A day is loaded on first use as sorted primitive
+// arrays of second-of-day values and answered with a binary search. BookingService
+// invalidates the affected days on every write (immediately and again after commit);
+// entries also expire after a TTL as a safety net for writes that bypass the service.
+//
+// Overlap rules match the original query: intervals touching at an endpoint conflict, and
+// cancelled or rejected bookings do not occupy the sitter.
+@Component
+public class SitterScheduleIndex {
+
+    private record DayKey(long sitterId, LocalDate date) {
+    }
+
+    private static final class DaySchedule {
+        private final int[] starts;
+        private final int[] ends;
+        // maxEnds[i] = latest end among the first i + 1 slots (ordered by start)
+        private final int[] maxEnds;
+        private final long expiresAt;
+
+        private DaySchedule(List<TimeSlot> slots, long expiresAt) {
+            int[][] pairs = new int[slots.size()][];
+            for (int i = 0; i < pairs.length; i++) {
+                TimeSlot slot = slots.get(i);
+                pairs[i] = new int[] {slot.startTime().toSecondOfDay(), slot.endTime().toSecondOfDay()};
+            }
+            Arrays.sort(pairs, (a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+
+            this.starts = new int[pairs.length];
+            this.ends = new int[pairs.length];
+            this.maxEnds = new int[pairs.length];
+            int maxEnd = Integer.MIN_VALUE;
+            for (int i = 0; i < pairs.length; i++) {
+                starts[i] = pairs[i][0];
+                ends[i] = pairs[i][1];
+                maxEnd = Math.max(maxEnd, ends[i]);
+                maxEnds[i] = maxEnd;
+            }
+            this.expiresAt = expiresAt;
+        }
+
+        // Any slot with start <= end and slotEnd >= start
+        private boolean overlaps(int start, int end) {
+            int lo = 0;
+            int hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] <= end) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo > 0 && maxEnds[lo - 1] >= start;
+        }
+
+        private boolean sameSlots(DaySchedule other) {
+            return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+        }
+    }
+
+    private final BookingJPARepository bookingRepository;
+    private final ConcurrentHashMap<DayKey, DaySchedule> days = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+
+    public SitterScheduleIndex(BookingJPARepository bookingRepository,
+                               @Value("${bookings.schedule-index.max-entries:100000}") int maxEntries,
+                               @Value("${bookings.schedule-index.ttl:300000}") long ttlMillis) {
+        this.bookingRepository = bookingRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public boolean isAvailable(long sitterId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return !schedule(new DayKey(sitterId, date)).overlaps(startTime.toSecondOfDay(), endTime.toSecondOfDay());
+    }
+
+    public void invalidate(Long sitterId, LocalDate date) {
+        if (sitterId == null || date == null) {
+            return;
+        }
+        DayKey key = new DayKey(sitterId, date);
+        invalidate(() -> days.remove(key));
+    }
+
+    // For bulk deletes (users, pets) whose affected sitters are not known up front
+    public void invalidateAll() {
+        invalidate(days::clear);
+    }
+
+    // Re-reads up to maxEntries cached days from the database and drops any that disagree.
+    // A mismatch means some write path is not invalidating the index.
+    public Map<String, Object> verify(int maxEntriesToCheck) {
+        int checked = 0;
+        List<String> mismatched = new ArrayList<>();
+        for (Map.Entry<DayKey, DaySchedule> entry : days.entrySet()) {
+            if (checked >= maxEntriesToCheck) {
+                break;
+            }
+            DayKey key = entry.getKey();
+            DaySchedule cached = entry.getValue();
+            DaySchedule fresh = new DaySchedule(bookingRepository.findActiveSlots(key.sitterId(), key.date()), 0);
+            checked++;
+            if (!cached.sameSlots(fresh)) {
+                mismatches.increment();
+                days.remove(key, cached);
+                mismatched.add(key.sitterId() + "@" + key.date());
+            }
+        }
+        return Map.of(
+                "checked", checked,
+                "cached", days.size(),
+                "mismatched", mismatched
+        );
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "size", days.size(),
+                "maxEntries", maxEntries,
+                "hits", hits.sum(),
+                "loads", loads.sum(),
+                "invalidations", invalidations.sum(),
+                "mismatches", mismatches.sum()
+        );
+    }
+
+    private DaySchedule schedule(DayKey key) {
+        DaySchedule cached = days.get(key);
+        if (cached != null && cached.expiresAt - System.nanoTime() > 0) {
+            hits.increment();
+            return cached;
+        }
+
+        long observed = generation.get();
+        loads.increment();
+        DaySchedule loaded = new DaySchedule(bookingRepository.findActiveSlots(key.sitterId(), key.date()),
+                System.nanoTime() + ttlNanos);
+        if (maxEntries > 0 && generation.get() == observed) {
+            if (days.size() >= maxEntries) {
+                makeRoom();
+            }
+            days.put(key, loaded);
+            // An invalidation landing between the check above and the put found nothing to
+            // remove; check again now the entry is visible and take it back out. Invalidations
+            // bump the generation before removing, so any later one removes the entry itself.
+            if (generation.get() != observed) {
+                days.remove(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private void invalidate(Runnable removal) {
+        generation.incrementAndGet();
+        removal.run();
+        invalidations.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    removal.run();
+                }
+            });
+        }
+    }
+
+    // Drop expired days first; if still full, drop an arbitrary tenth
+    private void makeRoom() {
+        long now = System.nanoTime();
+        days.values().removeIf(day -> day.expiresAt - now <= 0);
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<DayKey> it = days.keySet().iterator();
+        while (days.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
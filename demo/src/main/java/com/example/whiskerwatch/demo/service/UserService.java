@@ -1,39 +1,60 @@
 package com.example.whiskerwatch.demo.service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
  
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.whiskerwatch.demo.controller.response.CursorPage;
+import com.example.whiskerwatch.demo.controller.response.UserResponse;
 import com.example.whiskerwatch.demo.model.CustomerType;
 import com.example.whiskerwatch.demo.model.Role;
 import com.example.whiskerwatch.demo.model.User;
 import com.example.whiskerwatch.demo.repository.BookingJPARepository;
-import com.example.whiskerwatch.demo.repository.CustomerTypeJPARepository;
-import com.example.whiskerwatch.demo.repository.RoleJPARepository;
+import com.example.whiskerwatch.demo.repository.UserGroupCount;
 import com.example.whiskerwatch.demo.repository.UserJPARepository;
+import com.example.whiskerwatch.demo.security.PrincipalCache;
+import com.example.whiskerwatch.demo.security.TokenRevocationService;
 
 import lombok.NonNull;
 
 @Service
 public class UserService {
     private final UserJPARepository userRepository;
-    private final RoleJPARepository roleRepository;
-    private final CustomerTypeJPARepository customerTypeRepository;
+    private final ReferenceDataRegistry referenceData;
     private final BookingJPARepository bookingRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PrincipalCache principalCache;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final KeysetPagination pagination;
+    private final SitterScheduleIndex scheduleIndex;
 
     public UserService(UserJPARepository userRepository,
-                       RoleJPARepository roleRepository,
-                       CustomerTypeJPARepository customerTypeRepository,
-                       BookingJPARepository bookingRepository) {
+                       ReferenceDataRegistry referenceData,
+                       BookingJPARepository bookingRepository,
+                       PrincipalCache principalCache,
+                       PasswordEncoder passwordEncoder,
+                       TokenRevocationService tokenRevocationService,
+                       RefreshTokenService refreshTokenService,
+                       KeysetPagination pagination,
+                       SitterScheduleIndex scheduleIndex) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
-        this.customerTypeRepository = customerTypeRepository;
+        this.referenceData = referenceData;
         this.bookingRepository = bookingRepository;
+        this.principalCache = principalCache;
+        this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.pagination = pagination;
+        this.scheduleIndex = scheduleIndex;
     }
 
     public Optional<User> getUserByEmail(String email) {
@@ -49,8 +70,32 @@ public class UserService {
         User user = userOpt.get();
         user.setPassword(hashedPassword);
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        revokeSessions(userId);
     }
 
+    // Totals by activity, role and customer type, folded from one grouped count
+    public Map<String, Long> countUsers() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String key : List.of("total", "active", "inactive", "admins", "customers", "owners", "sitters")) {
+            counts.put(key, 0L);
+        }
+        for (UserGroupCount row : userRepository.countByGroup()) {
+            counts.merge("total", row.count(), Long::sum);
+            counts.merge(Boolean.TRUE.equals(row.isActive()) ? "active" : "inactive", row.count(), Long::sum);
+            if ("ADMIN".equals(row.roleName())) {
+                counts.merge("admins", row.count(), Long::sum);
+            } else if ("CUSTOMER".equals(row.roleName())) {
+                counts.merge("customers", row.count(), Long::sum);
+            }
+            if ("OWNER".equals(row.typeName())) {
+                counts.merge("owners", row.count(), Long::sum);
+            } else if ("SITTER".equals(row.typeName())) {
+                counts.merge("sitters", row.count(), Long::sum);
+            }
+        }
+        return counts;
+    }
 
     public List<User> getUsers(String email, String customerType, Boolean isActive) {
         if (email != null && !email.isBlank()) {
@@ -68,14 +113,38 @@ public class UserService {
     public Optional<User> getUser(Long userId) {
         return userRepository.findById(userId);
     }
+
+    // Read paths that only render UserResponse; see UserJPARepository.USER_RESPONSE_SELECT.
+    // Pages are ordered by id.
+    public CursorPage<UserResponse> getUserResponses(String email, String customerType, Boolean isActive,
+                                                     String cursor, Integer limit) {
+        int pageSize = pagination.pageSize(limit);
+        Limit fetch = pagination.fetchLimit(pageSize);
+        String[] after = KeysetPagination.decode(cursor, 1);
+        Long afterId = after != null ? Long.valueOf(after[0]) : 0L;
+
+        List<UserResponse> rows;
+        if (email != null && !email.isBlank()) {
+            rows = userRepository.findResponsesByEmailContaining(email, afterId, fetch);
+        } else if (customerType != null && !customerType.isBlank()) {
+            rows = userRepository.findResponsesByCustomerTypeName(customerType, afterId, fetch);
+        } else if (isActive != null) {
+            rows = userRepository.findResponsesByIsActive(isActive, afterId, fetch);
+        } else {
+            rows = userRepository.findResponsesAfter(afterId, fetch);
+        }
+        return pagination.page(rows, pageSize, user -> new Object[] {user.getUserId()});
+    }
+
+    public Optional<UserResponse> getUserResponse(Long userId) {
+        return userRepository.findResponseById(userId);
+    }
     
 
     public User createUser(String username, String email, String password, 
                       Long roleId, Long customerTypeId, String firstName, 
                       String lastName, String phoneNumber, String address) {
 
-        String hashedPassword = passwordEncoder.encode(password);
-
         // Check for duplicates
         if (userRepository.existsByUsername(username)) {
             throw new IllegalArgumentException("Username already exists: " + username);
@@ -90,20 +159,21 @@ public class UserService {
         // Handle role
         Role role;
         if (roleId == null) {
-            role = roleRepository.findByRoleName("CUSTOMER")
-                    .orElseThrow(() -> new IllegalArgumentException("Default role not found"));
+            role = referenceData.roles().reference(referenceData.roles().id("CUSTOMER")
+                    .orElseThrow(() -> new IllegalArgumentException("Default role not found")));
         } else {
-            role = roleRepository.findById(roleId)
-                    .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+            role = referenceData.roles().reference(roleId);
         }
 
         // Handle optional customer type
         CustomerType customerType = null;
         if (customerTypeId != null) {
-            customerType = customerTypeRepository.findById(customerTypeId)
-                    .orElseThrow(() -> new IllegalArgumentException("Customer type not found"));
+            customerType = referenceData.customerTypes().reference(customerTypeId);
         }
 
+        // Hash only once the cheap checks have passed, so rejected signups cost no BCrypt round
+        String hashedPassword = passwordEncoder.encode(password);
+
         // Create user entity
         User user = new User(username, email, hashedPassword, role, firstName, lastName, phoneNumber, address);
 
@@ -143,15 +213,23 @@ public class UserService {
                     throw new IllegalArgumentException("Phone number already exists: " + phoneNumber);
                 });
 
-        Role role = roleRepository.findById(roleId)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found"));
+        Role role = referenceData.roles().reference(roleId);
 
         CustomerType customerType = null;
         if (customerTypeId != null) {
-            customerType = customerTypeRepository.findById(customerTypeId)
-                    .orElseThrow(() -> new IllegalArgumentException("Customer type not found"));
+            customerType = referenceData.customerTypes().reference(customerTypeId);
         }
 
+        String previousEmail = existingUser.getEmail();
+        // Tokens carry email, role and customer type, so any change to them (or to the
+        // password or active flag) must end the sessions issued with the old values
+        boolean revokeSessions = !email.equals(previousEmail)
+                || (password != null && !password.isBlank())
+                || !role.getId().equals(existingUser.getRole() != null ? existingUser.getRole().getId() : null)
+                || !Objects.equals(customerTypeId,
+                        existingUser.getCustomerType() != null ? existingUser.getCustomerType().getId() : null)
+                || Boolean.FALSE.equals(isActive);
+
         existingUser.setUsername(username);
         existingUser.setEmail(email);
         if (password != null && !password.isBlank()) {
@@ -168,6 +246,11 @@ public class UserService {
         }
 
         userRepository.save(existingUser);
+        principalCache.evict(previousEmail);
+        principalCache.evict(email);
+        if (revokeSessions) {
+            revokeSessions(userId);
+        }
     }
 
     @Transactional
@@ -179,9 +262,18 @@ public class UserService {
 
         // Delete all bookings associated with this user (as owner or sitter)
         bookingRepository.deleteByUserId(userId);
+        scheduleIndex.invalidateAll();
 
         // Then delete the user
         userRepository.deleteById(userId);
+        principalCache.evictUser(userId);
+        tokenRevocationService.revokeAllForUser(userId);
+    }
+
+    // Invalidate every access token issued so far and drop the stored refresh tokens
+    private void revokeSessions(Long userId) {
+        tokenRevocationService.revokeAllForUser(userId);
+        refreshTokenService.revokeAll(userId);
     }
 
     public List<User> getUsersByRole(String roleName) {
@@ -0,0 +1,85 @@
+package com.example.whiskerwatch.demo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.whiskerwatch.demo.model.Booking;
+import com.example.whiskerwatch.demo.model.BookingStatus;
+import com.example.whiskerwatch.demo.model.Pet;
+import com.example.whiskerwatch.demo.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Needs the seeded database (schema.sql). Counts JDBC statements through Hibernate statistics.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingBatchInsertTests {
+
+    private static final int ROWS = 1_000;
+
+    @Autowired
+    private BookingJPARepository bookingRepository;
+
+    @Autowired
+    private PetJPARepository petRepository;
+
+    @Autowired
+    private UserJPARepository userRepository;
+
+    @Autowired
+    private BookingStatusJPARepository bookingStatusRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void thousandBookingsAreInsertedInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDate date = LocalDate.now().plusYears(60);
+
+        statistics.clear();
+        List<Long> ids = transactionTemplate.execute(status -> {
+            Pet pet = petRepository.getReferenceById(1L);
+            User owner = userRepository.getReferenceById(1L);
+            BookingStatus pending = bookingStatusRepository.getReferenceById(1L);
+
+            List<Booking> bookings = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                Booking booking = new Booking();
+                booking.setBookingDate(date.plusDays(i));
+                booking.setStartTime(LocalTime.of(9, 0));
+                booking.setEndTime(LocalTime.of(10, 0));
+                booking.setStatus(pending);
+                booking.setPet(pet);
+                booking.setOwner(owner);
+                booking.setTotalCost(BigDecimal.TEN);
+                bookings.add(booking);
+            }
+            return bookingRepository.saveAll(bookings).stream().map(Booking::getId).toList();
+        });
+
+        try {
+            assertEquals(ROWS, statistics.getEntityInsertCount());
+            // ROWS / 50 sequence calls plus ROWS / 50 batched INSERTs; IDENTITY would need one per row
+            long statements = statistics.getPrepareStatementCount();
+            assertTrue(statements <= 2 * ROWS / 50 + 5, "expected batched inserts, got " + statements + " statements");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.deleteAllByIdInBatch(ids));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.whiskerwatch.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.whiskerwatch.demo.exception.BookingConflictException;
+import com.example.whiskerwatch.demo.controller.response.BookingResponse;
+import com.example.whiskerwatch.demo.repository.BookingJPARepository;
+
+// Runs against the seeded database (schema.sql): users 2, 3, 5, 6 and 8 are sitters and pets
+// 1-8 belong to the owners in PET_OWNERS. Bookings are placed far in the future and removed afterwards.
+@SpringBootTest
+class BookingConcurrencyTests {
+
+    private static final Map<Long, Long> PET_OWNERS = Map.of(
+            1L, 1L, 2L, 4L, 3L, 7L, 4L, 9L, 5L, 14L, 6L, 17L, 7L, 19L, 8L, 22L);
+    private static final long PENDING_STATUS_ID = 1L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingJPARepository bookingRepository;
+
+    private final Queue<Long> createdBookingIds = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void removeCreatedBookings() {
+        bookingRepository.deleteAllById(createdBookingIds);
+        createdBookingIds.clear();
+    }
+
+    @Test
+    void concurrentBookingsForOneSitterAdmitExactlyOne() throws Exception {
+        LocalDate date = testDate();
+        List<Long> petIds = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+
+        int[] outcome = race(petIds.size(), i -> bookingService.createBooking(date, LocalTime.of(9, 0),
+                LocalTime.of(12, 0), PENDING_STATUS_ID, BigDecimal.TEN, null, petIds.get(i),
+                PET_OWNERS.get(petIds.get(i)), 2L));
+
+        assertEquals(1, outcome[0], "exactly one booking should win the slot");
+        assertEquals(petIds.size() - 1, outcome[1], "every other writer should get a conflict");
+    }
+
+    @Test
+    void concurrentBookingsForOnePetAdmitExactlyOne() throws Exception {
+        LocalDate date = testDate();
+        List<Long> sitterIds = List.of(2L, 3L, 5L, 6L, 8L);
+
+        int[] outcome = race(sitterIds.size(), i -> bookingService.createBooking(date, LocalTime.of(13, 0),
+                LocalTime.of(15, 0), PENDING_STATUS_ID, BigDecimal.TEN, null, 1L, PET_OWNERS.get(1L),
+                sitterIds.get(i)));
+
+        assertEquals(1, outcome[0]);
+        assertEquals(sitterIds.size() - 1, outcome[1]);
+    }
+
+    @Test
+    void bookingsForDifferentSittersDoNotBlockEachOther() throws Exception {
+        LocalDate date = testDate();
+        List<Long> sitterIds = List.of(2L, 3L, 5L, 6L, 8L);
+
+        int[] outcome = race(sitterIds.size(), i -> bookingService.createBooking(date, LocalTime.of(9, 0),
+                LocalTime.of(12, 0), PENDING_STATUS_ID, BigDecimal.TEN, null, (long) i + 1,
+                PET_OWNERS.get((long) i + 1), sitterIds.get(i)));
+
+        assertEquals(sitterIds.size(), outcome[0]);
+        assertEquals(0, outcome[1]);
+    }
+
+    private interface BookingAttempt {
+        BookingResponse run(int index);
+    }
+
+    // Releases all writers at once; returns {successes, conflicts}
+    private int[] race(int writers, BookingAttempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        createdBookingIds.add(attempt.run(index).getBookingId());
+                        successes.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        return new int[] {successes.get(), conflicts.get()};
+    }
+
+    private static LocalDate testDate() {
+        return LocalDate.now().plusYears(50).plusDays(ThreadLocalRandom.current().nextInt(3650));
+    }
+}
@@ -8,6 +8,7 @@ DROP TABLE IF EXISTS booking_statuses CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS pets CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
+DROP TABLE IF EXISTS refresh_tokens CASCADE;
 
 -- =============================================
 --  CREATE TABLE STATEMENTS
@@ -88,6 +89,27 @@ CREATE TABLE bookings (
     sitter_id BIGINT REFERENCES users(id) ON DELETE RESTRICT
 );
 
+-- 8. Refresh Tokens Table (opaque tokens, stored as SHA-256 hex)
+CREATE TABLE refresh_tokens (
+    token_hash VARCHAR(64) PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens(user_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
+
+-- Keyset pagination: each listing filter is followed by its sort key
+CREATE INDEX idx_bookings_keyset ON bookings(booking_date, start_time, id);
+CREATE INDEX idx_bookings_owner_keyset ON bookings(owner_id, booking_date, start_time, id);
+CREATE INDEX idx_bookings_sitter_keyset ON bookings(sitter_id, booking_date, start_time, id);
+CREATE INDEX idx_bookings_pet_keyset ON bookings(pet_id, booking_date, start_time, id);
+CREATE INDEX idx_bookings_status_keyset ON bookings(status_id, booking_date, start_time, id);
+CREATE INDEX idx_pets_owner_id ON pets(owner_id, id);
+CREATE INDEX idx_pets_type_id ON pets(type_id, id);
+CREATE INDEX idx_users_customer_type_id ON users(customer_type_id, id);
+
 -- =============================================
 --  INSERT STATEMENTS FOR PET SITTING DATABASE
 -- =============================================
@@ -222,6 +244,12 @@ SELECT setval('users_id_seq', (SELECT MAX(id) FROM users));
 SELECT setval('pets_id_seq', (SELECT MAX(id) FROM pets));
 SELECT setval('bookings_id_seq', (SELECT MAX(id) FROM bookings));
 
+-- Hibernate allocates ids for users, pets and bookings in blocks of 50 (pooled optimizer);
+-- the increments must match allocationSize on the entities
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE pets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+
 -- Update constraint
 ALTER TABLE bookings
     DROP CONSTRAINT IF EXISTS bookings_sitter_id_fkey;